@@ -1,5 +1,6 @@
 package com.honstain.practicetracker.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +11,427 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Export export = new Export();
+
+    private final Cache cache = new Cache();
+
+    private final Stats stats = new Stats();
+
+    private final Search search = new Search();
+
+    private final Events events = new Events();
+
+    private final Partitions partitions = new Partitions();
+
+    private final Sync sync = new Sync();
+
+    private final Jwt jwt = new Jwt();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final LoginRateLimit loginRateLimit = new LoginRateLimit();
+
     // jhipster-needle-application-properties-property
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    public Partitions getPartitions() {
+        return partitions;
+    }
+
+    public Sync getSync() {
+        return sync;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public LoginRateLimit getLoginRateLimit() {
+        return loginRateLimit;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Export {
+
+        /**
+         * Number of rows the database sends per round trip of an export cursor.
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * Longest wait for the next row of an export, for the database or the client, before the export is cancelled and
+         * its connection released.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Maximum number of entities in each of the read-through caches.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * How long an entity is served from a read-through cache after it was loaded.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of user details cached for the authentication.
+         */
+        private long userDetailsMaximumSize = 1000;
+
+        /**
+         * How long user details are served from the cache, kept short as a backstop to the eviction on every user write.
+         */
+        private Duration userDetailsTimeToLive = Duration.ofSeconds(30);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getUserDetailsMaximumSize() {
+            return userDetailsMaximumSize;
+        }
+
+        public void setUserDetailsMaximumSize(long userDetailsMaximumSize) {
+            this.userDetailsMaximumSize = userDetailsMaximumSize;
+        }
+
+        public Duration getUserDetailsTimeToLive() {
+            return userDetailsTimeToLive;
+        }
+
+        public void setUserDetailsTimeToLive(Duration userDetailsTimeToLive) {
+            this.userDetailsTimeToLive = userDetailsTimeToLive;
+        }
+    }
+
+    public static class Stats {
+
+        /**
+         * Cron expression of the rebuild of the problem statistics from the practices, "-" to only rebuild on request.
+         */
+        private String rebuildCron = "-";
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Whether the problem name search first matches the prefixes from an in-memory trie, before the database.
+         */
+        private boolean trieEnabled = true;
+
+        public boolean isTrieEnabled() {
+            return trieEnabled;
+        }
+
+        public void setTrieEnabled(boolean trieEnabled) {
+            this.trieEnabled = trieEnabled;
+        }
+    }
+
+    public static class Events {
+
+        /**
+         * Number of change events buffered for each subscriber of the event stream, the oldest are dropped beyond it.
+         */
+        private int subscriberBufferSize = 256;
+
+        public int getSubscriberBufferSize() {
+            return subscriberBufferSize;
+        }
+
+        public void setSubscriberBufferSize(int subscriberBufferSize) {
+            this.subscriberBufferSize = subscriberBufferSize;
+        }
+    }
+
+    public static class Partitions {
+
+        /**
+         * Number of monthly practice partitions created ahead of the current month.
+         */
+        private int monthsAhead = 3;
+
+        /**
+         * Cron expression of the creation of the practice partitions ahead, "-" to only create them on startup.
+         */
+        private String cron = "0 0 3 * * *";
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+    }
+
+    public static class Sync {
+
+        /**
+         * How long the tombstones of the deletes are kept, a client which did not sync for longer syncs every row again.
+         */
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        /**
+         * Cron expression of the purge of the tombstones older than the retention, "-" to never purge them.
+         */
+        private String purgeCron = "0 30 3 * * *";
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+
+        public String getPurgeCron() {
+            return purgeCron;
+        }
+
+        public void setPurgeCron(String purgeCron) {
+            this.purgeCron = purgeCron;
+        }
+    }
+
+    public static class Jwt {
+
+        /**
+         * Maximum number of verified tokens whose authentication is cached until they expire.
+         */
+        private long verifiedTokenCacheSize = 10000;
+
+        /**
+         * Number of revoked tokens, not expired yet, the Bloom filter of the revocations is sized for. It is resized past it.
+         */
+        private int expectedRevocations = 10000;
+
+        /**
+         * False positive probability of the Bloom filter of the revocations, each false positive costs a hash lookup.
+         */
+        private double revocationFalsePositiveProbability = 0.01;
+
+        /**
+         * Delay between two reads of the revocations made by the other instances, in ISO-8601, e.g. PT5S.
+         */
+        private Duration revocationRefreshInterval = Duration.ofSeconds(5);
+
+        public long getVerifiedTokenCacheSize() {
+            return verifiedTokenCacheSize;
+        }
+
+        public void setVerifiedTokenCacheSize(long verifiedTokenCacheSize) {
+            this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+        }
+
+        public int getExpectedRevocations() {
+            return expectedRevocations;
+        }
+
+        public void setExpectedRevocations(int expectedRevocations) {
+            this.expectedRevocations = expectedRevocations;
+        }
+
+        public double getRevocationFalsePositiveProbability() {
+            return revocationFalsePositiveProbability;
+        }
+
+        public void setRevocationFalsePositiveProbability(double revocationFalsePositiveProbability) {
+            this.revocationFalsePositiveProbability = revocationFalsePositiveProbability;
+        }
+
+        public Duration getRevocationRefreshInterval() {
+            return revocationRefreshInterval;
+        }
+
+        public void setRevocationRefreshInterval(Duration revocationRefreshInterval) {
+            this.revocationRefreshInterval = revocationRefreshInterval;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Number of threads hashing and matching passwords, 0 for one per available processor.
+         */
+        private int threads = 0;
+
+        /**
+         * Number of passwords waiting to be hashed, beyond it the requests are rejected with 503 (Service Unavailable).
+         */
+        private int queueCapacity = 64;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class LoginRateLimit {
+
+        /**
+         * Authentication attempts of a login allowed in a burst.
+         */
+        private int loginCapacity = 10;
+
+        /**
+         * Time to regain one authentication attempt of a login.
+         */
+        private Duration loginRefillPeriod = Duration.ofSeconds(6);
+
+        /**
+         * Authentication attempts of a client address allowed in a burst.
+         */
+        private int addressCapacity = 60;
+
+        /**
+         * Time to regain one authentication attempt of a client address.
+         */
+        private Duration addressRefillPeriod = Duration.ofSeconds(1);
+
+        /**
+         * How long the attempts of a login or of an address are remembered once it stops authenticating, at least the time
+         * to regain every attempt.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of logins, and of addresses, whose attempts are remembered, past it the least used are forgotten.
+         * Only the logins of existing accounts with a wrong password are remembered.
+         */
+        private long maximumSize = 100000;
+
+        public int getLoginCapacity() {
+            return loginCapacity;
+        }
+
+        public void setLoginCapacity(int loginCapacity) {
+            this.loginCapacity = loginCapacity;
+        }
+
+        public Duration getLoginRefillPeriod() {
+            return loginRefillPeriod;
+        }
+
+        public void setLoginRefillPeriod(Duration loginRefillPeriod) {
+            this.loginRefillPeriod = loginRefillPeriod;
+        }
+
+        public int getAddressCapacity() {
+            return addressCapacity;
+        }
+
+        public void setAddressCapacity(int addressCapacity) {
+            this.addressCapacity = addressCapacity;
+        }
+
+        public Duration getAddressRefillPeriod() {
+            return addressRefillPeriod;
+        }
+
+        public void setAddressRefillPeriod(Duration addressRefillPeriod) {
+            this.addressRefillPeriod = addressRefillPeriod;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
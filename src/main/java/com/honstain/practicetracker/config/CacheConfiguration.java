@@ -0,0 +1,39 @@
+package com.honstain.practicetracker.config;
+
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.PracticeSessionRepository;
+import com.honstain.practicetracker.repository.ReadThroughCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Function;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+@Configuration
+public class CacheConfiguration {
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheConfiguration(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.cacheProperties = applicationProperties.getCache();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ReadThroughCache<Long, Practice> practiceCache(PracticeRepository practiceRepository) {
+        return createCache("practice", practiceRepository::findById);
+    }
+
+    @Bean
+    public ReadThroughCache<Long, PracticeSession> practiceSessionCache(PracticeSessionRepository practiceSessionRepository) {
+        return createCache("practiceSession", practiceSessionRepository::findById);
+    }
+
+    private <T> ReadThroughCache<Long, T> createCache(String name, Function<Long, Mono<T>> loader) {
+        return new ReadThroughCache<>(name, loader, cacheProperties.getMaximumSize(), cacheProperties.getTimeToLive(), meterRegistry);
+    }
+}
@@ -4,8 +4,13 @@ import static org.springframework.security.web.server.util.matcher.ServerWebExch
 
 import com.honstain.practicetracker.security.AuthoritiesConstants;
 import com.honstain.practicetracker.security.jwt.JWTFilter;
+import com.honstain.practicetracker.security.jwt.RevokedTokens;
 import com.honstain.practicetracker.security.jwt.TokenProvider;
+import com.honstain.practicetracker.service.PasswordHashingService;
+import com.honstain.practicetracker.service.PasswordHashingUnavailableException;
 import com.honstain.practicetracker.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -41,18 +46,30 @@ public class SecurityConfiguration {
     private final SecurityProblemSupport problemSupport;
     private final CorsWebFilter corsWebFilter;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RevokedTokens revokedTokens;
+
     public SecurityConfiguration(
         ReactiveUserDetailsService userDetailsService,
         TokenProvider tokenProvider,
         JHipsterProperties jHipsterProperties,
         SecurityProblemSupport problemSupport,
-        CorsWebFilter corsWebFilter
+        CorsWebFilter corsWebFilter,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        RevokedTokens revokedTokens
     ) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.jHipsterProperties = jHipsterProperties;
         this.problemSupport = problemSupport;
         this.corsWebFilter = corsWebFilter;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.revokedTokens = revokedTokens;
     }
 
     @Bean
@@ -61,16 +78,24 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(PasswordHashingService passwordHashingService) {
         UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(
             userDetailsService
         );
-        authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+        // the password is matched on the bounded scheduler of the password hashes, which rejects it when saturated
+        authenticationManager.setPasswordEncoder(passwordHashingService.getPasswordEncoder());
+        authenticationManager.setScheduler(passwordHashingService.getScheduler());
+        return authentication ->
+            authenticationManager
+                .authenticate(authentication)
+                .onErrorMap(RejectedExecutionException.class, e -> new PasswordHashingUnavailableException());
     }
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain springSecurityFilterChain(
+        ServerHttpSecurity http,
+        ReactiveAuthenticationManager reactiveAuthenticationManager
+    ) {
         // @formatter:off
         http
             .securityMatcher(new NegatedServerWebExchangeMatcher(new OrServerWebExchangeMatcher(
@@ -81,8 +106,8 @@ public class SecurityConfiguration {
                 .disable()
             .addFilterBefore(corsWebFilter, SecurityWebFiltersOrder.REACTOR_CONTEXT)
             .addFilterAt(new SpaWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
-            .addFilterAt(new JWTFilter(tokenProvider), SecurityWebFiltersOrder.HTTP_BASIC)
-            .authenticationManager(reactiveAuthenticationManager())
+            .addFilterAt(jwtFilter(), SecurityWebFiltersOrder.HTTP_BASIC)
+            .authenticationManager(reactiveAuthenticationManager)
             .exceptionHandling()
                 .accessDeniedHandler(problemSupport)
                 .authenticationEntryPoint(problemSupport)
@@ -115,4 +140,8 @@ public class SecurityConfiguration {
         // @formatter:on
         return http.build();
     }
+
+    private JWTFilter jwtFilter() {
+        return new JWTFilter(tokenProvider, revokedTokens, applicationProperties.getJwt().getVerifiedTokenCacheSize(), meterRegistry);
+    }
 }
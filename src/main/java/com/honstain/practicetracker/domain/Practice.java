@@ -30,6 +30,10 @@ public class Practice implements Serializable {
     @Column("problem_link")
     private String problemLink;
 
+    /**
+     * The key of the monthly partition of the practice, so it is required.
+     */
+    @NotNull(message = "must not be null")
     @Column("start")
     private ZonedDateTime start;
 
@@ -46,6 +50,12 @@ public class Practice implements Serializable {
     @Column("practice_session_id")
     private Long practiceSessionId;
 
+    /**
+     * The problem of the link, resolved by the database on every write, the value sent by a client is ignored.
+     */
+    @Column("problem_id")
+    private Long problemId;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -148,6 +158,19 @@ public class Practice implements Serializable {
         this.practiceSessionId = practiceSession;
     }
 
+    public Long getProblemId() {
+        return this.problemId;
+    }
+
+    public Practice problemId(Long problemId) {
+        this.setProblemId(problemId);
+        return this;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -0,0 +1,114 @@
+package com.honstain.practicetracker.domain;
+
+import java.io.Serializable;
+import javax.validation.constraints.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A Problem, the practices of the same normalized link share it.
+ * <p>
+ * The problems are created by the database when a practice of a new link is written, the name and link are those of the
+ * first practice of the problem.
+ */
+@Table("problem")
+public class Problem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @NotNull(message = "must not be null")
+    @Column("name")
+    private String name;
+
+    @NotNull(message = "must not be null")
+    @Column("link")
+    private String link;
+
+    @Column("normalized_link")
+    private String normalizedLink;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Problem id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Problem name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLink() {
+        return this.link;
+    }
+
+    public Problem link(String link) {
+        this.setLink(link);
+        return this;
+    }
+
+    public void setLink(String link) {
+        this.link = link;
+    }
+
+    public String getNormalizedLink() {
+        return this.normalizedLink;
+    }
+
+    public Problem normalizedLink(String normalizedLink) {
+        this.setNormalizedLink(normalizedLink);
+        return this;
+    }
+
+    public void setNormalizedLink(String normalizedLink) {
+        this.normalizedLink = normalizedLink;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Problem)) {
+            return false;
+        }
+        return id != null && id.equals(((Problem) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Problem{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", link='" + getLink() + "'" +
+            ", normalizedLink='" + getNormalizedLink() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.honstain.practicetracker.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * The histogram of the solve times, in seconds, of the practices of a problem started on a day (UTC).
+ * <p>
+ * The solve times are counted in a {@link SolveTimeHistogram}, like the solve times of the {@link ProblemStats}
+ * rollups, so the histograms are mergeable: the histogram of any window of days is the sum of the histograms of its days.
+ */
+public class ProblemSolveTimes implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long problemId;
+
+    private final LocalDate day;
+
+    private final SolveTimeHistogram solveTimes;
+
+    public ProblemSolveTimes(Long problemId, LocalDate day) {
+        this(problemId, day, new SolveTimeHistogram());
+    }
+
+    public ProblemSolveTimes(Long problemId, LocalDate day, SolveTimeHistogram solveTimes) {
+        this.problemId = problemId;
+        this.day = day;
+        this.solveTimes = solveTimes;
+    }
+
+    /**
+     * @return the day of the histogram holding the solve time of the practice, or null if it has not started.
+     */
+    public static LocalDate dayOf(Practice practice) {
+        return practice.getStart() != null ? practice.getStart().withZoneSameInstant(ZoneOffset.UTC).toLocalDate() : null;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public SolveTimeHistogram getSolveTimes() {
+        return solveTimes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProblemSolveTimes{" +
+            "problemId=" + getProblemId() +
+            ", day='" + getDay() + "'" +
+            ", count=" + solveTimes.getCount() +
+            "}";
+    }
+}
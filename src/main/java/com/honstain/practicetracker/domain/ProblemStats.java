@@ -0,0 +1,145 @@
+package com.honstain.practicetracker.domain;
+
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * The rollup of the practices of a problem, grouped either by problem name or by problem link (the dimension).
+ * <p>
+ * Every counter is a sum, so a rollup is maintained by adding the contribution of a new practice and subtracting the
+ * contribution of a removed one. The solve times are counted in a {@link SolveTimeHistogram}, so a percentile is
+ * estimated from the rollup.
+ */
+public class ProblemStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String BY_PROBLEM_NAME = "problemName";
+    public static final String BY_PROBLEM_LINK = "problemLink";
+
+    private final String dimension;
+
+    private final String problem;
+
+    private long attempts;
+
+    private long passes;
+
+    private final SolveTimeHistogram solveTimes;
+
+    public ProblemStats(String dimension, String problem) {
+        this(dimension, problem, new SolveTimeHistogram());
+    }
+
+    public ProblemStats(String dimension, String problem, SolveTimeHistogram solveTimes) {
+        this.dimension = dimension;
+        this.problem = problem;
+        this.solveTimes = solveTimes;
+    }
+
+    /**
+     * Adds the contribution of a practice.
+     * @param practice the practice.
+     * @param sign {@code 1} to add the practice, {@code -1} to remove it.
+     */
+    public void add(Practice practice, int sign) {
+        attempts += sign;
+        if (practice.getResult() == PracticeResult.PASS) {
+            passes += sign;
+        }
+        Long seconds = solveSeconds(practice);
+        if (seconds != null) {
+            solveTimes.record(seconds, sign);
+        }
+    }
+
+    /**
+     * @return the solve time of the practice in seconds, or null if it is not finished.
+     */
+    public static Long solveSeconds(Practice practice) {
+        if (practice.getStart() == null || practice.getEnd() == null || practice.getEnd().isBefore(practice.getStart())) {
+            return null;
+        }
+        return Duration.between(practice.getStart(), practice.getEnd()).getSeconds();
+    }
+
+    /**
+     * @return true if no practice contributes to the rollup.
+     */
+    public boolean isEmpty() {
+        return attempts == 0 && passes == 0 && solveTimes.isEmpty();
+    }
+
+    /**
+     * @return the share of the attempts which passed, or null if there is no attempt.
+     */
+    public Double getPassRate() {
+        return attempts > 0 ? (double) passes / attempts : null;
+    }
+
+    /**
+     * @return the mean solve time in seconds, or null if no attempt is finished.
+     */
+    public Double getMeanSolveSeconds() {
+        return solveTimes.getMeanSeconds();
+    }
+
+    /**
+     * Estimates a solve time percentile, as the upper bound of the bucket holding it.
+     * @param percentile the percentile, between 0 and 1.
+     * @return the percentile in seconds, or null if no attempt is finished.
+     */
+    public Long getSolveSecondsPercentile(double percentile) {
+        return solveTimes.getPercentile(percentile);
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getProblem() {
+        return problem;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public void setPasses(long passes) {
+        this.passes = passes;
+    }
+
+    public long getTimedAttempts() {
+        return solveTimes.getCount();
+    }
+
+    public long getSolveSecondsSum() {
+        return solveTimes.getSecondsSum();
+    }
+
+    public SolveTimeHistogram getSolveTimes() {
+        return solveTimes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProblemStats{" +
+            "dimension='" + getDimension() + "'" +
+            ", problem='" + getProblem() + "'" +
+            ", attempts=" + getAttempts() +
+            ", passes=" + getPasses() +
+            ", timedAttempts=" + getTimedAttempts() +
+            ", solveSecondsSum=" + getSolveSecondsSum() +
+            "}";
+    }
+}
@@ -0,0 +1,136 @@
+package com.honstain.practicetracker.domain;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The histogram of a set of solve times, in seconds, with their count and sum.
+ * <p>
+ * The solve times are counted in log-linear buckets, {@link #SUB_BUCKETS} per power of two seconds, so a percentile is
+ * estimated within about 9%. Every field is a sum, so a histogram is maintained by adding the solve time of a new
+ * practice and subtracting the solve time of a removed one, and the histogram of a union of sets is the sum of their
+ * histograms. The database adds the buckets of a delta to the stored ones element-wise.
+ */
+public class SolveTimeHistogram implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SUB_BUCKETS = 8;
+    public static final int BUCKET_COUNT = 128;
+
+    private long count;
+
+    private long secondsSum;
+
+    private final long[] buckets;
+
+    public SolveTimeHistogram() {
+        this(0, 0, new long[BUCKET_COUNT]);
+    }
+
+    /**
+     * @param buckets the counts of the buckets, missing buckets are empty.
+     */
+    public SolveTimeHistogram(long count, long secondsSum, long[] buckets) {
+        this.count = count;
+        this.secondsSum = secondsSum;
+        this.buckets = Arrays.copyOf(buckets, BUCKET_COUNT);
+    }
+
+    /**
+     * Records or removes a solve time.
+     * @param seconds the solve time.
+     * @param sign {@code 1} to record the solve time, {@code -1} to remove it.
+     */
+    public void record(long seconds, int sign) {
+        count += sign;
+        secondsSum += sign * seconds;
+        buckets[bucketOf(seconds)] += sign;
+    }
+
+    /**
+     * Adds the solve times of another histogram.
+     * @param other the histogram.
+     */
+    public void add(SolveTimeHistogram other) {
+        count += other.count;
+        secondsSum += other.secondsSum;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            buckets[bucket] += other.buckets[bucket];
+        }
+    }
+
+    /**
+     * @return the bucket counting the solve time, the longest times all fall in the last bucket.
+     */
+    public static int bucketOf(long seconds) {
+        if (seconds <= 1) {
+            return 0;
+        }
+        // the epsilon keeps the exact powers of two in their own bucket despite the rounding of the logarithm
+        int bucket = (int) Math.ceil(SUB_BUCKETS * Math.log(seconds) / Math.log(2) - 1e-9);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @return the longest solve time, in seconds, counted by the bucket.
+     */
+    public static long bucketUpperBound(int bucket) {
+        return (long) Math.floor(Math.pow(2, (double) bucket / SUB_BUCKETS));
+    }
+
+    /**
+     * @return true if the histogram holds no solve time, or a delta leaves a histogram as it is.
+     */
+    public boolean isEmpty() {
+        return count == 0 && secondsSum == 0 && Arrays.stream(buckets).allMatch(bucketCount -> bucketCount == 0);
+    }
+
+    /**
+     * @return the mean solve time in seconds, or null if there is no solve time.
+     */
+    public Double getMeanSeconds() {
+        return count > 0 ? (double) secondsSum / count : null;
+    }
+
+    /**
+     * Estimates a percentile, as the upper bound of the bucket holding it.
+     * @param percentile the percentile, between 0 and 1.
+     * @return the percentile in seconds, or null if there is no solve time.
+     */
+    public Long getPercentile(double percentile) {
+        if (count <= 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            cumulative += buckets[bucket];
+            if (cumulative >= rank) {
+                return bucketUpperBound(bucket);
+            }
+        }
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSecondsSum() {
+        return secondsSum;
+    }
+
+    public long[] getBuckets() {
+        return buckets;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SolveTimeHistogram{" +
+            "count=" + getCount() +
+            ", secondsSum=" + getSecondsSum() +
+            "}";
+    }
+}
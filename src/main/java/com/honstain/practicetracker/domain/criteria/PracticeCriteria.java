@@ -0,0 +1,126 @@
+package com.honstain.practicetracker.domain.criteria;
+
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Criteria class for the {@link com.honstain.practicetracker.domain.Practice} entity. Every field is optional, the
+ * set fields are combined with {@code AND} and evaluated by the database.
+ * <p>
+ * It can be used in a REST controller, bound from query parameters like
+ * {@code ?result=PASS&problemName=Two&from=2022-09-01T00:00:00Z&to=2022-10-01T00:00:00Z&practiceSessionId=3}.
+ */
+public class PracticeCriteria implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private PracticeResult result;
+
+    private String problemName;
+
+    private ZonedDateTime from;
+
+    private ZonedDateTime to;
+
+    private Long practiceSessionId;
+
+    public PracticeCriteria() {}
+
+    public PracticeCriteria(PracticeCriteria other) {
+        this.result = other.result;
+        this.problemName = other.problemName;
+        this.from = other.from;
+        this.to = other.to;
+        this.practiceSessionId = other.practiceSessionId;
+    }
+
+    public PracticeCriteria copy() {
+        return new PracticeCriteria(this);
+    }
+
+    public PracticeResult getResult() {
+        return result;
+    }
+
+    public void setResult(PracticeResult result) {
+        this.result = result;
+    }
+
+    /**
+     * @return the prefix the problem name starts with.
+     */
+    public String getProblemName() {
+        return problemName;
+    }
+
+    public void setProblemName(String problemName) {
+        this.problemName = problemName;
+    }
+
+    /**
+     * @return the inclusive lower bound of the practice start.
+     */
+    public ZonedDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(ZonedDateTime from) {
+        this.from = from;
+    }
+
+    /**
+     * @return the exclusive upper bound of the practice start.
+     */
+    public ZonedDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(ZonedDateTime to) {
+        this.to = to;
+    }
+
+    public Long getPracticeSessionId() {
+        return practiceSessionId;
+    }
+
+    public void setPracticeSessionId(Long practiceSessionId) {
+        this.practiceSessionId = practiceSessionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PracticeCriteria that = (PracticeCriteria) o;
+        return (
+            result == that.result &&
+            Objects.equals(problemName, that.problemName) &&
+            Objects.equals(from, that.from) &&
+            Objects.equals(to, that.to) &&
+            Objects.equals(practiceSessionId, that.practiceSessionId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(result, problemName, from, to, practiceSessionId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PracticeCriteria{" +
+            (result != null ? "result=" + result + ", " : "") +
+            (problemName != null ? "problemName=" + problemName + ", " : "") +
+            (from != null ? "from=" + from + ", " : "") +
+            (to != null ? "to=" + to + ", " : "") +
+            (practiceSessionId != null ? "practiceSessionId=" + practiceSessionId + ", " : "") +
+            "}";
+    }
+}
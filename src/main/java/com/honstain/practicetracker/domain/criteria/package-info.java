@@ -0,0 +1,4 @@
+/**
+ * Criteria used to filter the domain objects in the database.
+ */
+package com.honstain.practicetracker.domain.criteria;
@@ -13,16 +13,31 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String RATE_LIMITED_METER_NAME = "security.authentication.rate-limited";
+    public static final String RATE_LIMITED_METER_DESCRIPTION = "Indicates the authentication attempts rejected by the rate limiter.";
+    public static final String RATE_LIMITED_METER_KEY_DIMENSION = "key";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter loginRateLimitedCounter;
+    private final Counter addressRateLimitedCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.loginRateLimitedCounter = rateLimitedCounterForKeyBuilder("login").register(registry);
+        this.addressRateLimitedCounter = rateLimitedCounterForKeyBuilder("address").register(registry);
+    }
+
+    private Counter.Builder rateLimitedCounterForKeyBuilder(String key) {
+        return Counter
+            .builder(RATE_LIMITED_METER_NAME)
+            .description(RATE_LIMITED_METER_DESCRIPTION)
+            .tag(RATE_LIMITED_METER_KEY_DIMENSION, key);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -48,4 +63,12 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackLoginRateLimited() {
+        this.loginRateLimitedCounter.increment();
+    }
+
+    public void trackAddressRateLimited() {
+        this.addressRateLimitedCounter.increment();
+    }
 }
@@ -0,0 +1,79 @@
+package com.honstain.practicetracker.repository;
+
+import java.time.Instant;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Repository of the change sequence of the practices and practice sessions, and of the tombstones of their deletes.
+ * <p>
+ * The change sequence of a write is the id of its transaction. The ids are assigned in order but the transactions
+ * commit in any order, so a reader must not use the highest sequence it sees: a transaction with a lower id may still
+ * commit later. The horizon is the id of the oldest transaction still running: every write with a lower sequence is
+ * committed or rolled back, so the rows with a sequence in {@code [from, horizon)} never change behind the reader.
+ * <p>
+ * The tombstones are only kept for a while, the highest purged sequence tells the readers which deletes may be missing.
+ */
+@Repository
+public class ChangeTrackingRepository {
+
+    private static final String HORIZON_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS horizon";
+
+    private static final String TOMBSTONES_SQL =
+        "SELECT entity_name, entity_id FROM change_tombstone WHERE change_seq >= :from AND change_seq < :to ORDER BY change_seq";
+
+    private static final String PURGED_THROUGH_SQL = "SELECT purged_through FROM change_tombstone_purge";
+
+    private static final String PURGE_SQL =
+        "WITH purged AS (DELETE FROM change_tombstone WHERE deleted_at < :before RETURNING change_seq) " +
+        "UPDATE change_tombstone_purge SET purged_through = greatest(purged_through, (SELECT max(change_seq) FROM purged)) " +
+        "RETURNING (SELECT count(*) FROM purged) AS purged";
+
+    private final DatabaseClient db;
+
+    public ChangeTrackingRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * @return the sequence below which every write is committed or rolled back.
+     */
+    public Mono<Long> findHorizon() {
+        return db.sql(HORIZON_SQL).map((row, metadata) -> row.get("horizon", Long.class)).one();
+    }
+
+    /**
+     * Find the deletes with a sequence in {@code [from, to)}.
+     * @param from the first sequence, inclusive.
+     * @param to the last sequence, exclusive.
+     * @return the entity name and id of each deleted row.
+     */
+    public Flux<Tuple2<String, Long>> findTombstones(long from, long to) {
+        return db
+            .sql(TOMBSTONES_SQL)
+            .bind("from", from)
+            .bind("to", to)
+            .map((row, metadata) -> Tuples.of(row.get("entity_name", String.class), row.get("entity_id", Long.class)))
+            .all();
+    }
+
+    /**
+     * @return the highest sequence of the purged tombstones, the deletes up to it may no longer have a tombstone.
+     */
+    public Mono<Long> findPurgedThrough() {
+        return db.sql(PURGED_THROUGH_SQL).map((row, metadata) -> row.get("purged_through", Long.class)).one();
+    }
+
+    /**
+     * Deletes the tombstones recorded before an instant, and raises the purged sequence in the same statement.
+     * @param before the instant.
+     * @return the number of tombstones deleted.
+     */
+    public Mono<Long> purgeTombstones(Instant before) {
+        return db.sql(PURGE_SQL).bind("before", before).map((row, metadata) -> row.get("purged", Long.class)).one();
+    }
+}
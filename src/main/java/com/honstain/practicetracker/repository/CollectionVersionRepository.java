@@ -0,0 +1,46 @@
+package com.honstain.practicetracker.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the version of the practice and practice session tables, derived from their change sequence (see
+ * {@link ChangeTrackingRepository}) so that it changes with every insert, update and delete, whichever instance or SQL
+ * session writes.
+ * <p>
+ * The highest change sequence alone is not enough: a transaction with a lower id may still commit after it is read. The
+ * version also lists the transactions still running with an id up to the highest sequence, so it changes when any of
+ * them ends. A transaction which starts later gets a higher id, and moves the highest sequence when it commits.
+ */
+@Repository
+public class CollectionVersionRepository {
+
+    // each max() reads one end of a change_seq index, the running transactions come from the snapshot
+    private static final String VERSION_SQL =
+        "WITH v AS (SELECT greatest(" +
+        "(SELECT coalesce(max(change_seq), 0) FROM practice), " +
+        "(SELECT coalesce(max(change_seq), 0) FROM practice_session), " +
+        "(SELECT coalesce(max(change_seq), 0) FROM change_tombstone)) AS version) " +
+        "SELECT v.version, (SELECT string_agg(x::text, '.' ORDER BY x) FROM pg_snapshot_xip(pg_current_snapshot()) AS x " +
+        "WHERE x::text::bigint <= v.version) AS running FROM v";
+
+    private final DatabaseClient db;
+
+    public CollectionVersionRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * @return the highest change sequence, followed by the running transactions which may still commit below it.
+     */
+    public Mono<String> findVersion() {
+        return db
+            .sql(VERSION_SQL)
+            .map((row, metadata) -> {
+                String running = row.get("running", String.class);
+                return row.get("version", Long.class) + (running != null ? "-" + running : "");
+            })
+            .one();
+    }
+}
@@ -0,0 +1,92 @@
+package com.honstain.practicetracker.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.relational.core.sql.BindMarker;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+/**
+ * Collects the conditions of a where clause, the values are rendered as bind markers and bound afterwards with
+ * {@link #bind(GenericExecuteSpec)}. Conditions with a null value are skipped, so optional criteria can be added
+ * unconditionally.
+ */
+class ConditionBuilder {
+
+    private static final String PARAMETER_PREFIX = "criteria_";
+
+    private final EntityManager entityManager;
+    private final List<Condition> conditions = new ArrayList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+
+    ConditionBuilder(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    ConditionBuilder isEqual(Column column, Object value) {
+        if (value != null) {
+            conditions.add(Conditions.isEqual(column, marker(value)));
+        }
+        return this;
+    }
+
+    ConditionBuilder isGreaterOrEqualTo(Column column, Object value) {
+        if (value != null) {
+            conditions.add(Conditions.isGreaterOrEqualTo(column, marker(value)));
+        }
+        return this;
+    }
+
+    ConditionBuilder isLess(Column column, Object value) {
+        if (value != null) {
+            conditions.add(Conditions.isLess(column, marker(value)));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a {@code LIKE 'prefix%'} condition, which can be answered by a {@code varchar_pattern_ops} index.
+     */
+    ConditionBuilder startsWith(Column column, String prefix) {
+        if (prefix != null && !prefix.isEmpty()) {
+            conditions.add(Conditions.like(column, marker(escapeLike(prefix) + "%")));
+        }
+        return this;
+    }
+
+    /**
+     * @return the value with the {@code LIKE} wildcards escaped, so that they match literally.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * @return the conditions combined with {@code AND}, or null if there is none.
+     */
+    Condition build() {
+        Condition result = null;
+        for (Condition condition : conditions) {
+            result = result == null ? condition : result.and(condition);
+        }
+        return result;
+    }
+
+    GenericExecuteSpec bind(GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private BindMarker marker(Object value) {
+        String name = PARAMETER_PREFIX + bindings.size();
+        bindings.put(name, entityManager.toDatabaseValue(value));
+        return SQL.bindMarker(":" + name);
+    }
+}
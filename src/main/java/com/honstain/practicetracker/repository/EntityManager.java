@@ -1,23 +1,35 @@
 package com.honstain.practicetracker.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
 import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.sql.BindMarker;
+import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
@@ -25,6 +37,7 @@ import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -41,6 +54,16 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    public static final String SELECT_CACHE_METER_NAME = "repository.select.cache";
+    public static final String SELECT_CACHE_METER_RESULT_DIMENSION = "result";
+
+    private static final String SEEK_VALUE_PARAMETER = "seek_value";
+    private static final String SEEK_ID_PARAMETER = "seek_id";
+
+    // offsets and limits are part of the shape, so paging creates shapes without end: the cache evicts the least used,
+    // and its frequency based admission keeps a scan through deep pages from evicting the hot shapes
+    private static final int SELECT_CACHE_MAX_SIZE = 1024;
+
     public static class LinkTable {
 
         final String tableName;
@@ -57,16 +80,107 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Identifies the SQL rendered for a query: the entity, the joined tables, the paging, the sort and the template of the
+     * where clause. Conditions only take part through their textual form, so the values must be bind markers.
+     */
+    public static final class SelectShape {
+
+        private final List<Object> parts;
+
+        private SelectShape(List<Object> parts) {
+            this.parts = parts;
+        }
+
+        /**
+         * @param entityType the entity type which holds the table name.
+         * @param join names the tables joined to the entity table, the same name must always select the same columns.
+         * @param parameters the paging, sort and conditions of the query, null values are allowed.
+         * @return the shape.
+         */
+        public static SelectShape of(Class<?> entityType, String join, Object... parameters) {
+            List<Object> parts = new ArrayList<>(parameters.length + 2);
+            parts.add(entityType);
+            parts.add(join);
+            for (Object parameter : parameters) {
+                parts.add(parameter instanceof Condition ? parameter.toString() : parameter);
+            }
+            return new SelectShape(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SelectShape)) {
+                return false;
+            }
+            return parts.equals(((SelectShape) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return parts.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "SelectShape" + parts;
+        }
+    }
+
     private final SqlRenderer sqlRenderer;
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    private final Cache<SelectShape, String> selectCache = Caffeine.newBuilder().maximumSize(SELECT_CACHE_MAX_SIZE).build();
+    private final Counter selectCacheHitCounter;
+    private final Counter selectCacheMissCounter;
+
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        MeterRegistry meterRegistry
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        this.selectCacheHitCounter = selectCacheCounterBuilder("hit").register(meterRegistry);
+        this.selectCacheMissCounter = selectCacheCounterBuilder("miss").register(meterRegistry);
+        Gauge
+            .builder(SELECT_CACHE_METER_NAME + ".size", selectCache, Cache::estimatedSize)
+            .description("Number of rendered SQL selects in the cache")
+            .register(meterRegistry);
+    }
+
+    private static Counter.Builder selectCacheCounterBuilder(String result) {
+        return Counter
+            .builder(SELECT_CACHE_METER_NAME)
+            .description("Lookups of rendered SQL selects by shape")
+            .tag(SELECT_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    /**
+     * Returns the SQL select of the given shape, it is only rendered the first time the shape is requested. Use bind
+     * markers for the values of the conditions, so every value shares the same shape and the same prepared statement.
+     * @param shape identifies the select.
+     * @param select renders the select, on a cache miss.
+     * @return the generated SQL select.
+     */
+    public String createSelect(SelectShape shape, Supplier<String> select) {
+        String cached = selectCache.getIfPresent(shape);
+        if (cached != null) {
+            selectCacheHitCounter.increment();
+            return cached;
+        }
+        selectCacheMissCounter.increment();
+        String rendered = select.get();
+        selectCache.put(shape, rendered);
+        return rendered;
     }
 
     /**
@@ -133,6 +247,170 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Creates an SQL select statement which returns the page following the given cursor. Instead of skipping rows with
+     * an offset, the rows are filtered with a {@code (sort column, id) > (value, id)} predicate, so the cost of a page does
+     * not depend on how deep it is. The values are bind markers, use {@link #bindSeek(GenericExecuteSpec, KeysetCursor)}.
+     * The rows on the other side of the NULLs are not returned, see {@link #hasSeekTail(Class, KeysetCursor)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param after the last row of the previous page, or null for the first page.
+     * @param sort the order of the first page, later pages follow the order of the cursor. Only the first order is used, the id breaks ties.
+     * @param pageSize the maximum number of rows.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql select statement
+     */
+    public String createSeekSelect(
+        SelectFromAndJoin selectFrom,
+        Class<?> entityType,
+        KeysetCursor after,
+        Sort sort,
+        int pageSize,
+        Condition where
+    ) {
+        Sort seekSort = createSeekSort(entityType, after, sort);
+        Condition condition = createSeekWhere(entityType, after, where);
+        if (condition != null) {
+            return createSelectImpl(selectFrom.limit(pageSize).where(condition), entityType, seekSort);
+        }
+        return createSelectImpl(selectFrom.limit(pageSize), entityType, seekSort);
+    }
+
+    /**
+     * Creates an SQL select statement which returns the page following the given cursor. Instead of skipping rows with
+     * an offset, the rows are filtered with a {@code (sort column, id) > (value, id)} predicate, so the cost of a page does
+     * not depend on how deep it is. The values are bind markers, use {@link #bindSeek(GenericExecuteSpec, KeysetCursor)}.
+     * The rows on the other side of the NULLs are not returned, see {@link #hasSeekTail(Class, KeysetCursor)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param after the last row of the previous page, or null for the first page.
+     * @param sort the order of the first page, later pages follow the order of the cursor. Only the first order is used, the id breaks ties.
+     * @param pageSize the maximum number of rows.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql select statement
+     */
+    public String createSeekSelect(
+        SelectFromAndJoinCondition selectFrom,
+        Class<?> entityType,
+        KeysetCursor after,
+        Sort sort,
+        int pageSize,
+        Condition where
+    ) {
+        Sort seekSort = createSeekSort(entityType, after, sort);
+        Condition condition = createSeekWhere(entityType, after, where);
+        if (condition != null) {
+            return createSelectImpl(selectFrom.limit(pageSize).where(condition), entityType, seekSort);
+        }
+        return createSelectImpl(selectFrom.limit(pageSize), entityType, seekSort);
+    }
+
+    /**
+     * Tells whether rows follow the ones the select of {@code createSeekSelect} can return. The seek predicate only reads
+     * the rows on the same side of the NULLs as the cursor: an ascending cursor with a value is followed by the rows with
+     * a null value, a descending cursor with a null value by the rows with a value.
+     * @param entityType the entity type which holds the table name.
+     * @param after the last row of the previous page, or null for the first page.
+     * @return true if a page which is not full must be completed with {@code createSeekTailSelect}.
+     */
+    public boolean hasSeekTail(Class<?> entityType, KeysetCursor after) {
+        if (after == null || getSeekProperty(getPersistentEntity(entityType), after.getProperty()).isIdProperty()) {
+            return false;
+        }
+        return after.getDirection().isAscending() == (after.getValue() != null);
+    }
+
+    /**
+     * Creates an SQL select statement which returns the first rows of the seek tail, see {@link #hasSeekTail(Class, KeysetCursor)}.
+     * It has no bind marker of its own.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param after the last row of the previous page.
+     * @param pageSize the maximum number of rows.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql select statement
+     */
+    public String createSeekTailSelect(
+        SelectFromAndJoin selectFrom,
+        Class<?> entityType,
+        KeysetCursor after,
+        int pageSize,
+        Condition where
+    ) {
+        Sort seekSort = createSeekSort(entityType, after, null);
+        return createSelectImpl(selectFrom.limit(pageSize).where(createSeekTailWhere(entityType, after, where)), entityType, seekSort);
+    }
+
+    /**
+     * Creates an SQL select statement which returns the first rows of the seek tail, see {@link #hasSeekTail(Class, KeysetCursor)}.
+     * It has no bind marker of its own.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param after the last row of the previous page.
+     * @param pageSize the maximum number of rows.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql select statement
+     */
+    public String createSeekTailSelect(
+        SelectFromAndJoinCondition selectFrom,
+        Class<?> entityType,
+        KeysetCursor after,
+        int pageSize,
+        Condition where
+    ) {
+        Sort seekSort = createSeekSort(entityType, after, null);
+        return createSelectImpl(selectFrom.limit(pageSize).where(createSeekTailWhere(entityType, after, where)), entityType, seekSort);
+    }
+
+    /**
+     * Completes a keyset page which is not full with the first rows of the seek tail.
+     * @param page the rows read with the select of {@code createSeekSelect}.
+     * @param pageSize the maximum number of rows.
+     * @param tail reads the given number of rows with the select of {@code createSeekTailSelect}.
+     * @param <T> the type of the rows.
+     * @return the rows of the page.
+     */
+    public static <T> Flux<T> concatSeekTail(Flux<T> page, int pageSize, IntFunction<Flux<T>> tail) {
+        return page
+            .collectList()
+            .flatMapMany(rows ->
+                rows.size() < pageSize ? Flux.fromIterable(rows).concatWith(tail.apply(pageSize - rows.size())) : Flux.fromIterable(rows)
+            );
+    }
+
+    /**
+     * Binds the cursor values to a statement created by {@code createSeekSelect}.
+     * @param spec the statement.
+     * @param after the cursor the statement was created with, or null for the first page.
+     * @return the statement with the bound values.
+     */
+    public GenericExecuteSpec bindSeek(GenericExecuteSpec spec, KeysetCursor after) {
+        if (after == null) {
+            return spec;
+        }
+        spec = spec.bind(SEEK_ID_PARAMETER, after.getId());
+        if (after.getValue() != null) {
+            spec = spec.bind(SEEK_VALUE_PARAMETER, after.getValue());
+        }
+        return spec;
+    }
+
+    /**
+     * Creates the cursor pointing after the given row, which is the last row of a keyset page.
+     * @param row the last entity of the page.
+     * @param after the cursor the page was read with, or null for the first page.
+     * @param sort the order of the first page.
+     * @return the cursor for the next page.
+     */
+    public KeysetCursor createCursor(Object row, KeysetCursor after, Sort sort) {
+        RelationalPersistentEntity<?> entity = getPersistentEntity(row.getClass());
+        Sort.Order order = after != null ? after.getSort().iterator().next() : firstOrder(entity, sort);
+        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(row);
+        Object value = accessor.getProperty(getSeekProperty(entity, order.getProperty()));
+        Object id = accessor.getProperty(entity.getRequiredIdProperty());
+        return new KeysetCursor(order.getProperty(), order.getDirection(), toDatabaseValue(value), (Long) id);
+    }
+
     /**
      * Generate an actual SQL from the given {@link Select}.
      * @param select a representation of a select statement.
@@ -220,6 +498,98 @@ public class EntityManager {
         return createSelect(selectFrom.build());
     }
 
+    private Sort createSeekSort(Class<?> entityType, KeysetCursor after, Sort sort) {
+        RelationalPersistentEntity<?> entity = getPersistentEntity(entityType);
+        Sort.Order order = after != null ? after.getSort().iterator().next() : firstOrder(entity, sort);
+        getSeekProperty(entity, order.getProperty());
+        String idProperty = entity.getRequiredIdProperty().getName();
+        if (idProperty.equals(order.getProperty())) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), idProperty));
+    }
+
+    private Condition createSeekWhere(Class<?> entityType, KeysetCursor after, Condition where) {
+        if (after == null) {
+            return where;
+        }
+        Condition seek = Conditions.nest(createSeekCondition(getPersistentEntity(entityType), after));
+        return where != null ? Conditions.nest(where).and(seek) : seek;
+    }
+
+    private Condition createSeekCondition(RelationalPersistentEntity<?> entity, KeysetCursor after) {
+        Table table = Table.create(entity.getTableName()).as(EntityManager.ENTITY_ALIAS);
+        boolean ascending = after.getDirection().isAscending();
+        BindMarker idMarker = SQL.bindMarker(":" + SEEK_ID_PARAMETER);
+        Column id = table.column(entity.getRequiredIdProperty().getColumnName());
+        Condition idAfter = ascending ? Conditions.isGreater(id, idMarker) : Conditions.isLess(id, idMarker);
+
+        RelationalPersistentProperty property = getSeekProperty(entity, after.getProperty());
+        if (property.isIdProperty()) {
+            return idAfter;
+        }
+        Column column = table.column(property.getColumnName());
+        // Postgres sorts NULLs last when ascending, and first when descending, the other rows are read by the seek tail
+        if (after.getValue() == null) {
+            return Conditions.isNull(column).and(idAfter);
+        }
+        // unlike the equivalent OR chain, a row value comparison is an index condition on both columns of a (column, id) index
+        return Conditions.just(
+            "(" +
+            qualifiedName(property) +
+            ", " +
+            qualifiedName(entity.getRequiredIdProperty()) +
+            ") " +
+            (ascending ? ">" : "<") +
+            " (:" +
+            SEEK_VALUE_PARAMETER +
+            ", :" +
+            SEEK_ID_PARAMETER +
+            ")"
+        );
+    }
+
+    private Condition createSeekTailWhere(Class<?> entityType, KeysetCursor after, Condition where) {
+        RelationalPersistentEntity<?> entity = getPersistentEntity(entityType);
+        Table table = Table.create(entity.getTableName()).as(EntityManager.ENTITY_ALIAS);
+        Column column = table.column(getSeekProperty(entity, after.getProperty()).getColumnName());
+        Condition tail = after.getDirection().isAscending() ? Conditions.isNull(column) : Conditions.isNull(column).not();
+        return where != null ? Conditions.nest(where).and(tail) : tail;
+    }
+
+    private static String qualifiedName(RelationalPersistentProperty property) {
+        return EntityManager.ENTITY_ALIAS + "." + property.getColumnName().getReference();
+    }
+
+    private static Sort.Order firstOrder(RelationalPersistentEntity<?> entity, Sort sort) {
+        if (sort != null && sort.isSorted()) {
+            return sort.iterator().next();
+        }
+        return Sort.Order.asc(entity.getRequiredIdProperty().getName());
+    }
+
+    private static RelationalPersistentProperty getSeekProperty(RelationalPersistentEntity<?> entity, String propertyName) {
+        RelationalPersistentProperty property = entity.getPersistentProperty(propertyName);
+        if (property == null) {
+            throw new IllegalArgumentException("Unknown sort property " + propertyName + " for " + entity.getName());
+        }
+        return property;
+    }
+
+    /**
+     * Converts a value to the type which is bound to statements, applying the registered writing converters.
+     * @param value the value, or null.
+     * @return the value to bind, integral numbers are widened to {@link Long}.
+     */
+    public Object toDatabaseValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        R2dbcConverter converter = r2dbcEntityTemplate.getConverter();
+        Object converted = converter.getConversionService().convert(value, converter.getTargetType(value.getClass()));
+        return converted instanceof Number ? Long.valueOf(((Number) converted).longValue()) : converted;
+    }
+
     private RelationalPersistentEntity<?> getPersistentEntity(Class<?> entityType) {
         return r2dbcEntityTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
     }
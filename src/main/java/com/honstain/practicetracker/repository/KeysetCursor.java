@@ -0,0 +1,173 @@
+package com.honstain.practicetracker.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * Position of the last row of a keyset (seek) page: the sort property, its direction, the database value of that
+ * property and the id of the row.
+ * <p>
+ * The next page starts strictly after this position, so the database can seek on an index instead of scanning and
+ * discarding {@code OFFSET} rows. The cursor is handed to clients as an opaque, URL-safe token.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private static final char NULL_VALUE = 'N';
+    private static final char STRING_VALUE = 'S';
+    private static final char LONG_VALUE = 'L';
+    private static final char TIMESTAMP_VALUE = 'T';
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+
+    public KeysetCursor(String property, Sort.Direction direction, Object value, Long id) {
+        Assert.hasText(property, "property is empty");
+        Assert.notNull(direction, "direction is null");
+        Assert.notNull(id, "id is null");
+        Assert.isTrue(
+            value == null || value instanceof String || value instanceof Long || value instanceof LocalDateTime,
+            "Unsupported keyset value type"
+        );
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the value of the sort property of the last row, already converted to its database representation.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the sort the cursor was created with, subsequent pages must follow the same order.
+     */
+    public Sort getSort() {
+        return Sort.by(direction, property);
+    }
+
+    /**
+     * The part of a keyset select which depends on the cursor, to cache the rendered SQL: the sort, and whether the value
+     * is null as that changes the seek predicate. The values themselves are bind markers.
+     * @param after the cursor, or null for the first page.
+     * @param sort the order of the first page.
+     * @return the shape, comparable with {@code equals}.
+     */
+    static Object shapeOf(KeysetCursor after, Sort sort) {
+        if (after == null) {
+            return sort;
+        }
+        return Arrays.asList(after.getSort(), after.getValue() == null);
+    }
+
+    /**
+     * Serialize the cursor into an opaque token.
+     * @return the URL-safe token.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + encodeValue();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token created by {@link #encode()}.
+     * @param token the opaque token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static KeysetCursor decode(String token) {
+        Assert.hasText(token, "cursor is empty");
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // the value comes last, so it may itself contain the separator
+        String[] parts = raw.split(SEPARATOR, 4);
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), decodeValue(parts[3]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    private String encodeValue() {
+        if (value == null) {
+            return String.valueOf(NULL_VALUE);
+        }
+        if (value instanceof Long) {
+            return LONG_VALUE + value.toString();
+        }
+        if (value instanceof LocalDateTime) {
+            return TIMESTAMP_VALUE + value.toString();
+        }
+        return STRING_VALUE + value.toString();
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = encoded.substring(1);
+        switch (encoded.charAt(0)) {
+            case NULL_VALUE:
+                return null;
+            case LONG_VALUE:
+                return Long.valueOf(value);
+            case TIMESTAMP_VALUE:
+                return LocalDateTime.parse(value);
+            case STRING_VALUE:
+                return value;
+            default:
+                throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return property.equals(that.property) && direction == that.direction && Objects.equals(value, that.value) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", value='" + value + "'" +
+            ", id=" + id +
+            "}";
+    }
+}
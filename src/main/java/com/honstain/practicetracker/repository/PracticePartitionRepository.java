@@ -0,0 +1,34 @@
+package com.honstain.practicetracker.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the monthly partitions of the practice table, which is partitioned by range of start.
+ */
+@Repository
+public class PracticePartitionRepository {
+
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_practice_partitions(:monthsAhead) AS created";
+
+    private final DatabaseClient db;
+
+    public PracticePartitionRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Create the missing partitions of the current month (UTC), of the following months and of the months of the
+     * practices in the default partition, which are moved to their new partition.
+     * @param monthsAhead the number of months after the current one.
+     * @return the number of partitions created.
+     */
+    public Mono<Integer> createPartitions(int monthsAhead) {
+        return db
+            .sql(CREATE_PARTITIONS_SQL)
+            .bind("monthsAhead", monthsAhead)
+            .map((row, metadata) -> row.get("created", Integer.class))
+            .one();
+    }
+}
@@ -1,13 +1,17 @@
 package com.honstain.practicetracker.repository;
 
 import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.criteria.PracticeCriteria;
+import java.util.List;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 /**
  * Spring Data R2DBC repository for the Practice entity.
@@ -18,9 +22,15 @@ public interface PracticeRepository extends ReactiveCrudRepository<Practice, Lon
     @Query("SELECT * FROM practice entity WHERE entity.practice_session_id = :id")
     Flux<Practice> findByPracticeSession(Long id);
 
+    @Query("SELECT entity.id FROM practice entity WHERE entity.practice_session_id = :id")
+    Flux<Long> findIdsByPracticeSession(Long id);
+
     @Query("SELECT * FROM practice entity WHERE entity.practice_session_id IS NULL")
     Flux<Practice> findAllWherePracticeSessionIsNull();
 
+    @Query("SELECT * FROM practice entity WHERE entity.problem_name = :problemName")
+    Flux<Practice> findAllByProblemName(String problemName);
+
     @Override
     <S extends Practice> Mono<S> save(S entity);
 
@@ -39,10 +49,114 @@ interface PracticeRepositoryInternal {
 
     Flux<Practice> findAllBy(Pageable pageable);
 
+    /**
+     * Find a keyset page, the rows matching the criteria and following the given cursor.
+     * @param criteria the filter, or null to match every row.
+     * @param after the last row of the previous page, or null for the first page.
+     * @param sort the order of the first page, later pages follow the order of the cursor.
+     * @param size the maximum number of rows.
+     * @return the page.
+     */
+    Flux<Practice> findAllAfter(PracticeCriteria criteria, KeysetCursor after, Sort sort, int size);
+
+    /**
+     * Find the rows matching the criteria, the filter is evaluated by the database.
+     * @param criteria the filter, or null to match every row.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @return the matching rows.
+     */
+    Flux<Practice> findByCriteria(PracticeCriteria criteria, Pageable pageable);
+
+    /**
+     * Stream the rows matching the criteria in id order, from a cursor which fetches {@code fetchSize} rows at a time,
+     * so that a large result is never held in memory.
+     * @param criteria the filter, or null to match every row.
+     * @param fetchSize the number of rows fetched per round trip.
+     * @return the matching rows.
+     */
+    Flux<Practice> streamByCriteria(PracticeCriteria criteria, int fetchSize);
+
+    /**
+     * Stream every row ordered by problem name then id, from a cursor which fetches {@code fetchSize} rows at a time, so
+     * that the history of each problem can be folded while it is streamed.
+     * @param fetchSize the number of rows fetched per round trip.
+     * @return the rows.
+     */
+    Flux<Practice> streamOrderedByProblemName(int fetchSize);
+
+    /**
+     * Stream the rows written with a change sequence in {@code [from, to)} in id order, from a cursor which fetches
+     * {@code fetchSize} rows at a time, see {@link ChangeTrackingRepository}.
+     * @param from the first change sequence, inclusive.
+     * @param to the last change sequence, exclusive.
+     * @param fetchSize the number of rows fetched per round trip.
+     * @return the rows.
+     */
+    Flux<Practice> streamChanged(long from, long to, int fetchSize);
+
+    /**
+     * Insert new practices with a single batched statement, instead of one round trip per row.
+     * @param practices the practices to insert, none of them may have an id yet.
+     * @return the generated ids, in the order of the given practices.
+     */
+    Flux<Long> insertAll(List<Practice> practices);
+
+    /**
+     * Update every column of an existing practice with a single {@code UPDATE ... RETURNING} statement.
+     * @param practice the practice to update, identified by its id.
+     * @return the updated practice, or empty if no practice has the id.
+     */
+    Mono<Practice> update(Practice practice);
+
+    /**
+     * Update the non-null fields of an existing practice with a single {@code UPDATE ... RETURNING} statement, the
+     * session of the practice is left unchanged.
+     * @param practice the fields to update, identified by its id.
+     * @return the updated practice, or empty if no practice has the id.
+     */
+    Mono<Practice> updateNonNullFields(Practice practice);
+
+    /**
+     * Update every column of an existing practice, like {@link #update(Practice)}, with a single statement which also
+     * returns the practice as it was before the update, its row locked until the end of the transaction.
+     * @param practice the practice to update, identified by its id.
+     * @return the previous and the updated practice, or empty if no practice has the id.
+     */
+    Mono<Tuple2<Practice, Practice>> updateReturningPrevious(Practice practice);
+
+    /**
+     * Update the non-null fields of an existing practice, like {@link #updateNonNullFields(Practice)}, with a single
+     * statement which also returns the practice as it was before the update, its row locked until the end of the
+     * transaction.
+     * @param practice the fields to update, identified by its id.
+     * @return the previous and the updated practice, or empty if no practice has the id.
+     */
+    Mono<Tuple2<Practice, Practice>> updateNonNullFieldsReturningPrevious(Practice practice);
+
+    /**
+     * Delete a practice with a single {@code DELETE ... RETURNING} statement.
+     * @param id the id of the practice.
+     * @return the deleted practice, or empty if no practice has the id.
+     */
+    Mono<Practice> deleteByIdReturningPrevious(Long id);
+
+    /**
+     * Find the problem names containing the query, case-insensitively, with the number of practices of each. The
+     * substring match is served by the trigram index {@code idx_practice__problem_name_trgm}.
+     * @param query the text to find in the names.
+     * @param limit the maximum number of names.
+     * @return the names, the most practiced first.
+     */
+    Flux<Tuple2<String, Long>> searchProblemNames(String query, int limit);
+
+    /**
+     * Count the practices of every problem name.
+     * @return the names with their number of practices.
+     */
+    Flux<Tuple2<String, Long>> countByProblemName();
+
     Flux<Practice> findAll();
 
     Mono<Practice> findById(Long id);
-    // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
-    // Flux<Practice> findAllBy(Pageable pageable, Criteria criteria);
 
 }
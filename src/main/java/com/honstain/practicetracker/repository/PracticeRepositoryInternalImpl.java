@@ -3,11 +3,16 @@ package com.honstain.practicetracker.repository;
 import static org.springframework.data.relational.core.query.Criteria.where;
 
 import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.criteria.PracticeCriteria;
 import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.EntityManager.SelectShape;
 import com.honstain.practicetracker.repository.rowmapper.PracticeRowMapper;
 import com.honstain.practicetracker.repository.rowmapper.PracticeSessionRowMapper;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +21,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
@@ -26,17 +32,25 @@ import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * Spring Data R2DBC custom repository implementation for the Practice entity.
+ * <p>
+ * The practice table is partitioned by month of start, but the practices are addressed by id alone: the lookups,
+ * updates and deletes by id are not pruned, they probe the unique id index of every partition. Only the queries on a
+ * range of start read fewer partitions.
  */
 @SuppressWarnings("unused")
 class PracticeRepositoryInternalImpl extends SimpleR2dbcRepository<Practice, Long> implements PracticeRepositoryInternal {
@@ -48,8 +62,28 @@ class PracticeRepositoryInternalImpl extends SimpleR2dbcRepository<Practice, Lon
     private final PracticeSessionRowMapper practicesessionMapper;
     private final PracticeRowMapper practiceMapper;
 
+    private static final String DELETED_TABLE = "deleted";
+
     private static final Table entityTable = Table.aliased("practice", EntityManager.ENTITY_ALIAS);
     private static final Table practiceSessionTable = Table.aliased("practice_session", "practiceSession");
+    private static final Table updatedTable = Table.aliased(UpdateBuilder.UPDATED_TABLE, EntityManager.ENTITY_ALIAS);
+    private static final Table previousTable = Table.create(UpdateBuilder.PREVIOUS_TABLE);
+    private static final Table deletedTable = Table.aliased(DELETED_TABLE, EntityManager.ENTITY_ALIAS);
+
+    // names the columns selected by createSelectFrom, for the rendered SQL cache
+    private static final String SELECT_JOIN = "practiceSession";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO practice (problem_name, problem_link, start, jhi_end, result, practice_session_id) VALUES ($1, $2, $3, $4, $5, $6)";
+
+    private static final String DELETE_SQL = "DELETE FROM practice WHERE id = :id";
+
+    private static final String SEARCH_PROBLEM_NAMES_SQL =
+        "SELECT problem_name, COUNT(*) AS frequency FROM practice WHERE problem_name ILIKE :pattern " +
+        "GROUP BY problem_name ORDER BY frequency DESC, problem_name LIMIT :limit";
+
+    private static final String COUNT_BY_PROBLEM_NAME_SQL =
+        "SELECT problem_name, COUNT(*) AS frequency FROM practice GROUP BY problem_name";
 
     public PracticeRepositoryInternalImpl(
         R2dbcEntityTemplate template,
@@ -76,19 +110,266 @@ class PracticeRepositoryInternalImpl extends SimpleR2dbcRepository<Practice, Lon
         return createQuery(pageable, null).all();
     }
 
+    @Override
+    public Flux<Practice> findAllAfter(PracticeCriteria criteria, KeysetCursor after, Sort sort, int size) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        Flux<Practice> page = createSeekQuery(after, sort, size, conditions).all();
+        if (!entityManager.hasSeekTail(Practice.class, after)) {
+            return page;
+        }
+        return EntityManager.concatSeekTail(page, size, remaining -> createSeekTailQuery(after, remaining, conditions).all());
+    }
+
+    @Override
+    public Flux<Practice> findByCriteria(PracticeCriteria criteria, Pageable pageable) {
+        return createCriteriaQuery(pageable, buildConditions(criteria)).all();
+    }
+
+    @Override
+    public Flux<Practice> streamByCriteria(PracticeCriteria criteria, int fetchSize) {
+        return stream(buildConditions(criteria), fetchSize, "orderedById", OrderByField.from(entityTable.column("id")));
+    }
+
+    @Override
+    public Flux<Practice> streamOrderedByProblemName(int fetchSize) {
+        return stream(
+            buildConditions(null),
+            fetchSize,
+            "orderedByProblemName",
+            OrderByField.from(entityTable.column("problem_name")),
+            OrderByField.from(entityTable.column("id"))
+        );
+    }
+
+    @Override
+    public Flux<Practice> streamChanged(long from, long to, int fetchSize) {
+        ConditionBuilder conditions = new ConditionBuilder(entityManager)
+            .isGreaterOrEqualTo(entityTable.column("change_seq"), from)
+            .isLess(entityTable.column("change_seq"), to);
+        return stream(conditions, fetchSize, "orderedById", OrderByField.from(entityTable.column("id")));
+    }
+
+    private Flux<Practice> stream(ConditionBuilder conditions, int fetchSize, String order, OrderByField... orderBy) {
+        Condition whereClause = conditions.build();
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, order, whereClause),
+            () -> {
+                SelectFromAndJoinCondition selectFrom = createSelectFrom();
+                SelectOrdered filtered = whereClause != null ? selectFrom.where(whereClause) : selectFrom;
+                return entityManager.createSelect(filtered.orderBy(orderBy).build());
+            }
+        );
+        return conditions.bind(db.sql(select)).filter(statement -> statement.fetchSize(fetchSize)).map(this::process).all();
+    }
+
     RowsFetchSpec<Practice> createQuery(Pageable pageable, Condition whereClause) {
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, pageable, whereClause),
+            () -> entityManager.createSelect(createSelectFrom(), Practice.class, pageable, whereClause)
+        );
+        return db.sql(select).map(this::process);
+    }
+
+    RowsFetchSpec<Practice> createCriteriaQuery(Pageable pageable, ConditionBuilder conditions) {
+        Condition whereClause = conditions.build();
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, pageable, whereClause),
+            () -> entityManager.createSelect(createSelectFrom(), Practice.class, pageable, whereClause)
+        );
+        return conditions.bind(db.sql(select)).map(this::process);
+    }
+
+    RowsFetchSpec<Practice> createSeekQuery(KeysetCursor after, Sort sort, int size, ConditionBuilder conditions) {
+        Condition whereClause = conditions.build();
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, KeysetCursor.shapeOf(after, sort), size, whereClause),
+            () -> entityManager.createSeekSelect(createSelectFrom(), Practice.class, after, sort, size, whereClause)
+        );
+        return entityManager.bindSeek(conditions.bind(db.sql(select)), after).map(this::process);
+    }
+
+    RowsFetchSpec<Practice> createSeekTailQuery(KeysetCursor after, int size, ConditionBuilder conditions) {
+        Condition whereClause = conditions.build();
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, "seekTail", after.getSort(), size, whereClause),
+            () -> entityManager.createSeekTailSelect(createSelectFrom(), Practice.class, after, size, whereClause)
+        );
+        return conditions.bind(db.sql(select)).map(this::process);
+    }
+
+    private ConditionBuilder buildConditions(PracticeCriteria criteria) {
+        ConditionBuilder builder = new ConditionBuilder(entityManager);
+        if (criteria != null) {
+            // the start bounds compare the bare partition key with timestamps, so the partitions outside them are pruned
+            builder
+                .isEqual(entityTable.column("result"), criteria.getResult())
+                .startsWith(entityTable.column("problem_name"), criteria.getProblemName())
+                .isGreaterOrEqualTo(entityTable.column("start"), toUtc(criteria.getFrom()))
+                .isLess(entityTable.column("start"), toUtc(criteria.getTo()))
+                .isEqual(entityTable.column("practice_session_id"), criteria.getPracticeSessionId());
+        }
+        return builder;
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<Practice> practices) {
+        if (practices.isEmpty()) {
+            return Flux.empty();
+        }
+        // one statement with a binding per row, the driver pipelines all of them in a single round trip
+        return db.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            for (int i = 0; i < practices.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                Practice practice = practices.get(i);
+                bind(statement, 0, practice.getProblemName(), String.class);
+                bind(statement, 1, practice.getProblemLink(), String.class);
+                bind(statement, 2, practice.getStart(), LocalDateTime.class);
+                bind(statement, 3, practice.getEnd(), LocalDateTime.class);
+                bind(statement, 4, practice.getResult(), String.class);
+                bind(statement, 5, practice.getPracticeSessionId(), Long.class);
+            }
+            return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> row.get("id", Long.class)));
+        });
+    }
+
+    @Override
+    public Mono<Practice> update(Practice practice) {
+        return executeUpdate(updateEveryColumn(practice), practice.getId());
+    }
+
+    @Override
+    public Mono<Tuple2<Practice, Practice>> updateReturningPrevious(Practice practice) {
+        return executeUpdateReturningPrevious(updateEveryColumn(practice).returningPrevious(), practice.getId());
+    }
+
+    @Override
+    public Mono<Practice> updateNonNullFields(Practice practice) {
+        UpdateBuilder update = updateNonNullColumns(practice);
+        return update.isEmpty() ? findById(practice.getId()) : executeUpdate(update, practice.getId());
+    }
+
+    @Override
+    public Mono<Tuple2<Practice, Practice>> updateNonNullFieldsReturningPrevious(Practice practice) {
+        UpdateBuilder update = updateNonNullColumns(practice);
+        if (update.isEmpty()) {
+            return findById(practice.getId()).map(unchanged -> Tuples.of(unchanged, unchanged));
+        }
+        return executeUpdateReturningPrevious(update.returningPrevious(), practice.getId());
+    }
+
+    private UpdateBuilder updateEveryColumn(Practice practice) {
+        return new UpdateBuilder(entityManager, "practice")
+            .set("problem_name", practice.getProblemName(), String.class)
+            .set("problem_link", practice.getProblemLink(), String.class)
+            .set("start", practice.getStart(), LocalDateTime.class)
+            .set("jhi_end", practice.getEnd(), LocalDateTime.class)
+            .set("result", practice.getResult(), String.class)
+            .set("practice_session_id", practice.getPracticeSessionId(), Long.class);
+    }
+
+    private UpdateBuilder updateNonNullColumns(Practice practice) {
+        return new UpdateBuilder(entityManager, "practice")
+            .setIfNotNull("problem_name", practice.getProblemName())
+            .setIfNotNull("problem_link", practice.getProblemLink())
+            .setIfNotNull("start", practice.getStart())
+            .setIfNotNull("jhi_end", practice.getEnd())
+            .setIfNotNull("result", practice.getResult());
+    }
+
+    @Override
+    public Mono<Practice> deleteByIdReturningPrevious(Long id) {
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, "", DELETED_TABLE),
+            () ->
+                entityManager.createSelect(
+                    Select.builder().select(PracticeSqlHelper.getColumns(deletedTable, EntityManager.ENTITY_ALIAS)).from(deletedTable).build()
+                )
+        );
+        return db
+            .sql("WITH " + DELETED_TABLE + " AS (" + DELETE_SQL + " RETURNING *) " + select)
+            .bind("id", id)
+            .map((row, metadata) -> practiceMapper.apply(row, EntityManager.ENTITY_ALIAS))
+            .one();
+    }
+
+    private Mono<Practice> executeUpdate(UpdateBuilder update, Long id) {
+        // selects the updated row with the same join as findById, so the update takes a single round trip
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, UpdateBuilder.UPDATED_TABLE),
+            () -> {
+                List<Expression> columns = PracticeSqlHelper.getColumns(updatedTable, EntityManager.ENTITY_ALIAS);
+                columns.addAll(PracticeSessionSqlHelper.getColumns(practiceSessionTable, "practiceSession"));
+                return entityManager.createSelect(
+                    Select
+                        .builder()
+                        .select(columns)
+                        .from(updatedTable)
+                        .leftOuterJoin(practiceSessionTable)
+                        .on(Column.create("practice_session_id", updatedTable))
+                        .equals(Column.create("id", practiceSessionTable))
+                        .build()
+                );
+            }
+        );
+        return update.bind(db.sql(update.toSql(select)), id).map(this::process).one();
+    }
+
+    private Mono<Tuple2<Practice, Practice>> executeUpdateReturningPrevious(UpdateBuilder update, Long id) {
+        // the previous row is read in the same statement, so the listeners get both without another round trip
+        String select = entityManager.createSelect(
+            SelectShape.of(Practice.class, SELECT_JOIN, UpdateBuilder.UPDATED_TABLE, UpdateBuilder.PREVIOUS_TABLE),
+            () -> {
+                List<Expression> columns = PracticeSqlHelper.getColumns(updatedTable, EntityManager.ENTITY_ALIAS);
+                columns.addAll(PracticeSessionSqlHelper.getColumns(practiceSessionTable, "practiceSession"));
+                columns.addAll(PracticeSqlHelper.getColumns(previousTable, UpdateBuilder.PREVIOUS_TABLE));
+                return entityManager.createSelect(
+                    Select
+                        .builder()
+                        .select(columns)
+                        .from(updatedTable)
+                        .leftOuterJoin(practiceSessionTable)
+                        .on(Column.create("practice_session_id", updatedTable))
+                        .equals(Column.create("id", practiceSessionTable))
+                        .join(previousTable)
+                        .on(Column.create("id", updatedTable))
+                        .equals(Column.create("id", previousTable))
+                        .build()
+                );
+            }
+        );
+        return update
+            .bind(db.sql(update.toSql(select)), id)
+            .map((row, metadata) -> Tuples.of(practiceMapper.apply(row, UpdateBuilder.PREVIOUS_TABLE), process(row, metadata)))
+            .one();
+    }
+
+    private void bind(Statement statement, int index, Object value, Class<?> databaseType) {
+        Object databaseValue = entityManager.toDatabaseValue(value);
+        if (databaseValue == null) {
+            statement.bindNull(index, databaseType);
+        } else {
+            statement.bind(index, databaseValue);
+        }
+    }
+
+    // the timestamps are stored in UTC, see DatabaseConfiguration.ZonedDateTimeWriteConverter
+    private static ZonedDateTime toUtc(ZonedDateTime dateTime) {
+        return dateTime != null ? dateTime.withZoneSameInstant(ZoneOffset.UTC) : null;
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
         List<Expression> columns = PracticeSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(PracticeSessionSqlHelper.getColumns(practiceSessionTable, "practiceSession"));
-        SelectFromAndJoinCondition selectFrom = Select
+        return Select
             .builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(practiceSessionTable)
             .on(Column.create("practice_session_id", entityTable))
             .equals(Column.create("id", practiceSessionTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Practice.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -98,8 +379,26 @@ class PracticeRepositoryInternalImpl extends SimpleR2dbcRepository<Practice, Lon
 
     @Override
     public Mono<Practice> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createCriteriaQuery(null, new ConditionBuilder(entityManager).isEqual(entityTable.column("id"), id)).one();
+    }
+
+    @Override
+    public Flux<Tuple2<String, Long>> searchProblemNames(String query, int limit) {
+        return db
+            .sql(SEARCH_PROBLEM_NAMES_SQL)
+            .bind("pattern", "%" + ConditionBuilder.escapeLike(query) + "%")
+            .bind("limit", limit)
+            .map(this::processProblemNameCount)
+            .all();
+    }
+
+    @Override
+    public Flux<Tuple2<String, Long>> countByProblemName() {
+        return db.sql(COUNT_BY_PROBLEM_NAME_SQL).map(this::processProblemNameCount).all();
+    }
+
+    private Tuple2<String, Long> processProblemNameCount(Row row, RowMetadata metadata) {
+        return Tuples.of(row.get("problem_name", String.class), row.get("frequency", Long.class));
     }
 
     private Practice process(Row row, RowMetadata metadata) {
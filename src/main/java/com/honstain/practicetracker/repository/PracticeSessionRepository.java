@@ -2,6 +2,7 @@ package com.honstain.practicetracker.repository;
 
 import com.honstain.practicetracker.domain.PracticeSession;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -33,9 +34,55 @@ interface PracticeSessionRepositoryInternal {
 
     Flux<PracticeSession> findAllBy(Pageable pageable);
 
+    /**
+     * Find a keyset page, the rows following the given cursor.
+     * @param after the last row of the previous page, or null for the first page.
+     * @param sort the order of the first page, later pages follow the order of the cursor.
+     * @param size the maximum number of rows.
+     * @return the page.
+     */
+    Flux<PracticeSession> findAllAfter(KeysetCursor after, Sort sort, int size);
+
     Flux<PracticeSession> findAll();
 
     Mono<PracticeSession> findById(Long id);
+
+    /**
+     * Find all the sessions with their practices, loaded by a single join ordered by session so the rows of a session
+     * are grouped while they are streamed.
+     * @return the sessions, with their practices.
+     */
+    Flux<PracticeSession> findAllWithPractices();
+
+    /**
+     * Find the session with its practices, loaded by a single join.
+     * @param id the id of the session.
+     * @return the session with its practices, or empty if the session does not exist.
+     */
+    Mono<PracticeSession> findByIdWithPractices(Long id);
+
+    /**
+     * Find the sessions written with a change sequence in {@code [from, to)}, without their practices, see
+     * {@link ChangeTrackingRepository}.
+     * @param from the first change sequence, inclusive.
+     * @param to the last change sequence, exclusive.
+     * @return the sessions.
+     */
+    Flux<PracticeSession> findAllChanged(long from, long to);
+
+    /**
+     * Update every column of an existing session with a single {@code UPDATE ... RETURNING} statement.
+     * @param practiceSession the session to update, identified by its id.
+     * @return the updated session, or empty if no session has the id.
+     */
+    Mono<PracticeSession> update(PracticeSession practiceSession);
+
+    /**
+     * Update the non-null fields of an existing session with a single {@code UPDATE ... RETURNING} statement.
+     * @param practiceSession the fields to update, identified by its id.
+     * @return the updated session, or empty if no session has the id.
+     */
+    Mono<PracticeSession> updateNonNullFields(PracticeSession practiceSession);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<PracticeSession> findAllBy(Pageable pageable, Criteria criteria);
 
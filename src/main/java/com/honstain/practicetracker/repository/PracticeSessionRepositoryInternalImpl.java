@@ -2,10 +2,14 @@ package com.honstain.practicetracker.repository;
 
 import static org.springframework.data.relational.core.query.Criteria.where;
 
+import com.honstain.practicetracker.domain.Practice;
 import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.repository.EntityManager.SelectShape;
+import com.honstain.practicetracker.repository.rowmapper.PracticeRowMapper;
 import com.honstain.practicetracker.repository.rowmapper.PracticeSessionRowMapper;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +18,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
@@ -24,14 +29,21 @@ import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * Spring Data R2DBC custom repository implementation for the PracticeSession entity.
@@ -46,13 +58,21 @@ class PracticeSessionRepositoryInternalImpl
     private final EntityManager entityManager;
 
     private final PracticeSessionRowMapper practicesessionMapper;
+    private final PracticeRowMapper practiceMapper;
 
     private static final Table entityTable = Table.aliased("practice_session", EntityManager.ENTITY_ALIAS);
+    private static final Table practicesTable = Table.aliased("practice", "practices");
+    private static final Table updatedTable = Table.aliased(UpdateBuilder.UPDATED_TABLE, EntityManager.ENTITY_ALIAS);
+
+    // name the columns selected by createSelectFrom and createSelectWithPractices, for the rendered SQL cache
+    private static final String SELECT_JOIN = "";
+    private static final String SELECT_WITH_PRACTICES_JOIN = "practices";
 
     public PracticeSessionRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
         PracticeSessionRowMapper practicesessionMapper,
+        PracticeRowMapper practiceMapper,
         R2dbcEntityOperations entityOperations,
         R2dbcConverter converter
     ) {
@@ -65,6 +85,7 @@ class PracticeSessionRepositoryInternalImpl
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
         this.practicesessionMapper = practicesessionMapper;
+        this.practiceMapper = practiceMapper;
     }
 
     @Override
@@ -72,14 +93,81 @@ class PracticeSessionRepositoryInternalImpl
         return createQuery(pageable, null).all();
     }
 
+    @Override
+    public Flux<PracticeSession> findAllAfter(KeysetCursor after, Sort sort, int size) {
+        Flux<PracticeSession> page = createSeekQuery(after, sort, size, null).all();
+        if (!entityManager.hasSeekTail(PracticeSession.class, after)) {
+            return page;
+        }
+        return EntityManager.concatSeekTail(page, size, remaining -> createSeekTailQuery(after, remaining, null).all());
+    }
+
     RowsFetchSpec<PracticeSession> createQuery(Pageable pageable, Condition whereClause) {
-        List<Expression> columns = PracticeSessionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, PracticeSession.class, pageable, whereClause);
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_JOIN, pageable, whereClause),
+            () -> entityManager.createSelect(createSelectFrom(), PracticeSession.class, pageable, whereClause)
+        );
+        return db.sql(select).map(this::process);
+    }
+
+    RowsFetchSpec<PracticeSession> createCriteriaQuery(Pageable pageable, ConditionBuilder conditions) {
+        Condition whereClause = conditions.build();
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_JOIN, pageable, whereClause),
+            () -> entityManager.createSelect(createSelectFrom(), PracticeSession.class, pageable, whereClause)
+        );
+        return conditions.bind(db.sql(select)).map(this::process);
+    }
+
+    RowsFetchSpec<PracticeSession> createSeekQuery(KeysetCursor after, Sort sort, int size, Condition whereClause) {
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_JOIN, KeysetCursor.shapeOf(after, sort), size, whereClause),
+            () -> entityManager.createSeekSelect(createSelectFrom(), PracticeSession.class, after, sort, size, whereClause)
+        );
+        return entityManager.bindSeek(db.sql(select), after).map(this::process);
+    }
+
+    RowsFetchSpec<PracticeSession> createSeekTailQuery(KeysetCursor after, int size, Condition whereClause) {
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_JOIN, "seekTail", after.getSort(), size, whereClause),
+            () -> entityManager.createSeekTailSelect(createSelectFrom(), PracticeSession.class, after, size, whereClause)
+        );
         return db.sql(select).map(this::process);
     }
 
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = PracticeSessionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
+    @Override
+    public Mono<PracticeSession> update(PracticeSession practiceSession) {
+        UpdateBuilder update = new UpdateBuilder(entityManager, "practice_session")
+            .set("start", practiceSession.getStart(), LocalDateTime.class)
+            .set("jhi_end", practiceSession.getEnd(), LocalDateTime.class);
+        return executeUpdate(update, practiceSession.getId());
+    }
+
+    @Override
+    public Mono<PracticeSession> updateNonNullFields(PracticeSession practiceSession) {
+        UpdateBuilder update = new UpdateBuilder(entityManager, "practice_session")
+            .setIfNotNull("start", practiceSession.getStart())
+            .setIfNotNull("jhi_end", practiceSession.getEnd());
+        return update.isEmpty() ? findById(practiceSession.getId()) : executeUpdate(update, practiceSession.getId());
+    }
+
+    private Mono<PracticeSession> executeUpdate(UpdateBuilder update, Long id) {
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_JOIN, UpdateBuilder.UPDATED_TABLE),
+            () -> {
+                List<Expression> columns = PracticeSessionSqlHelper.getColumns(updatedTable, EntityManager.ENTITY_ALIAS);
+                return entityManager.createSelect(Select.builder().select(columns).from(updatedTable).build());
+            }
+        );
+        return update.bind(db.sql(update.toSql(select)), id).map(this::process).one();
+    }
+
     @Override
     public Flux<PracticeSession> findAll() {
         return findAllBy(null);
@@ -87,8 +175,72 @@ class PracticeSessionRepositoryInternalImpl
 
     @Override
     public Mono<PracticeSession> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createCriteriaQuery(null, new ConditionBuilder(entityManager).isEqual(entityTable.column("id"), id)).one();
+    }
+
+    @Override
+    public Flux<PracticeSession> findAllChanged(long from, long to) {
+        ConditionBuilder conditions = new ConditionBuilder(entityManager)
+            .isGreaterOrEqualTo(entityTable.column("change_seq"), from)
+            .isLess(entityTable.column("change_seq"), to);
+        return createCriteriaQuery(null, conditions).all();
+    }
+
+    @Override
+    public Flux<PracticeSession> findAllWithPractices() {
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_WITH_PRACTICES_JOIN),
+            () -> createSelectWithPractices(null)
+        );
+        return groupPractices(db.sql(select));
+    }
+
+    @Override
+    public Mono<PracticeSession> findByIdWithPractices(Long id) {
+        Condition whereClause = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+        String select = entityManager.createSelect(
+            SelectShape.of(PracticeSession.class, SELECT_WITH_PRACTICES_JOIN, whereClause),
+            () -> createSelectWithPractices(whereClause)
+        );
+        return groupPractices(db.sql(select).bind("id", id)).next();
+    }
+
+    private String createSelectWithPractices(Condition whereClause) {
+        List<Expression> columns = PracticeSessionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(PracticeSqlHelper.getColumns(practicesTable, "practices"));
+        SelectFromAndJoinCondition selectFrom = Select
+            .builder()
+            .select(columns)
+            .from(entityTable)
+            .leftOuterJoin(practicesTable)
+            .on(Column.create("practice_session_id", practicesTable))
+            .equals(Column.create("id", entityTable));
+        SelectOrdered select = whereClause != null ? selectFrom.where(whereClause) : selectFrom;
+        // the rows of a session must be adjacent to be grouped while streaming
+        return entityManager.createSelect(
+            select.orderBy(OrderByField.from(entityTable.column("id")), OrderByField.from(practicesTable.column("id"))).build()
+        );
+    }
+
+    private Flux<PracticeSession> groupPractices(GenericExecuteSpec spec) {
+        return spec
+            .map(this::processWithPractice)
+            .all()
+            .bufferUntilChanged(tuple -> tuple.getT1().getId())
+            .map(rows -> {
+                PracticeSession entity = rows.get(0).getT1();
+                rows.forEach(tuple -> tuple.getT2().ifPresent(practice -> entity.getPractices().add(practice)));
+                return entity;
+            });
+    }
+
+    private Tuple2<PracticeSession, Optional<Practice>> processWithPractice(Row row, RowMetadata metadata) {
+        PracticeSession entity = practicesessionMapper.apply(row, "e");
+        // a session without practices still has one row, with the practice columns all null
+        Optional<Practice> practice = row.get("practices_id") != null
+            ? Optional.of(practiceMapper.apply(row, "practices"))
+            : Optional.empty();
+        return Tuples.of(entity, practice);
     }
 
     private PracticeSession process(Row row, RowMetadata metadata) {
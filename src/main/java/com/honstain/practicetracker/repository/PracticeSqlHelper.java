@@ -18,6 +18,7 @@ public class PracticeSqlHelper {
         columns.add(Column.aliased("result", table, columnPrefix + "_result"));
 
         columns.add(Column.aliased("practice_session_id", table, columnPrefix + "_practice_session_id"));
+        columns.add(Column.aliased("problem_id", table, columnPrefix + "_problem_id"));
         return columns;
     }
 }
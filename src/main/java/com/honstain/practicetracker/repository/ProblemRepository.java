@@ -0,0 +1,22 @@
+package com.honstain.practicetracker.repository;
+
+import com.honstain.practicetracker.domain.Problem;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the Problem entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ProblemRepository extends ReactiveCrudRepository<Problem, Long> {
+    /**
+     * Find the problem of a link, by a probe of the hash index on the normalized link.
+     * @param link the link, normalized by the database.
+     * @return the problem, or empty if no practice has the link.
+     */
+    @Query("SELECT * FROM problem entity WHERE entity.normalized_link = normalize_problem_link(:link)")
+    Mono<Problem> findOneByLink(String link);
+}
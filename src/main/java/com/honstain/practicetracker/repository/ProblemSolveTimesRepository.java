@@ -0,0 +1,129 @@
+package com.honstain.practicetracker.repository;
+
+import com.honstain.practicetracker.domain.ProblemSolveTimes;
+import com.honstain.practicetracker.domain.SolveTimeHistogram;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the {@link ProblemSolveTimes} histograms, which are only ever changed by adding deltas so that
+ * concurrent transactions never overwrite each other. A histogram left without solve time keeps its row, the reads skip
+ * it.
+ */
+@Repository
+public class ProblemSolveTimesRepository {
+
+    private static final String SELECT_SQL =
+        "SELECT problem_id, day, solve_count, solve_seconds_sum, solve_time_buckets FROM problem_solve_times WHERE solve_count > 0";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO problem_solve_times AS t (problem_id, day, solve_count, solve_seconds_sum, solve_time_buckets) " +
+        "VALUES ($1, $2, $3, $4, $5) ON CONFLICT (problem_id, day) DO UPDATE SET " +
+        "solve_count = t.solve_count + excluded.solve_count, " +
+        "solve_seconds_sum = t.solve_seconds_sum + excluded.solve_seconds_sum, " +
+        "solve_time_buckets = ARRAY(SELECT a + b FROM unnest(t.solve_time_buckets, excluded.solve_time_buckets) " +
+        "WITH ORDINALITY AS u(a, b, i) ORDER BY i)";
+
+    private static final Comparator<ProblemSolveTimes> KEY_ORDER = Comparator
+        .comparing(ProblemSolveTimes::getProblemId)
+        .thenComparing(ProblemSolveTimes::getDay);
+
+    private final DatabaseClient db;
+
+    public ProblemSolveTimesRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Find the histograms of the days of a window.
+     * @param problemId the problem, or null for every problem.
+     * @param from the first day, or null for no lower bound.
+     * @param to the last day, or null for no upper bound.
+     * @return the histograms, ordered by problem.
+     */
+    public Flux<ProblemSolveTimes> findAll(Long problemId, LocalDate from, LocalDate to) {
+        List<String> conditions = new ArrayList<>();
+        if (problemId != null) {
+            conditions.add("problem_id = :problemId");
+        }
+        if (from != null) {
+            conditions.add("day >= :from");
+        }
+        if (to != null) {
+            conditions.add("day <= :to");
+        }
+        String where = conditions.isEmpty() ? "" : " AND " + String.join(" AND ", conditions);
+        DatabaseClient.GenericExecuteSpec spec = db.sql(SELECT_SQL + where + " ORDER BY problem_id, day");
+        if (problemId != null) {
+            spec = spec.bind("problemId", problemId);
+        }
+        if (from != null) {
+            spec = spec.bind("from", from);
+        }
+        if (to != null) {
+            spec = spec.bind("to", to);
+        }
+        return spec.map((row, metadata) -> read(row)).all();
+    }
+
+    /**
+     * Adds the deltas to the histograms with a single batched upsert, the rows are changed in key order so that
+     * concurrent transactions lock them in the same order.
+     * @param deltas the deltas, at most one per problem and day.
+     * @return completion.
+     */
+    public Mono<Void> addAll(Collection<ProblemSolveTimes> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        List<ProblemSolveTimes> ordered = new ArrayList<>(deltas);
+        ordered.sort(KEY_ORDER);
+        return db
+            .inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(UPSERT_SQL);
+                for (int i = 0; i < ordered.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    ProblemSolveTimes delta = ordered.get(i);
+                    statement
+                        .bind(0, delta.getProblemId())
+                        .bind(1, delta.getDay())
+                        .bind(2, delta.getSolveTimes().getCount())
+                        .bind(3, delta.getSolveTimes().getSecondsSum())
+                        .bind(4, LongStream.of(delta.getSolveTimes().getBuckets()).boxed().toArray(Long[]::new));
+                }
+                return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+            })
+            .then();
+    }
+
+    /**
+     * Deletes every histogram, after locking the table until the end of the transaction.
+     * @return completion.
+     */
+    public Mono<Void> lockAndDeleteAll() {
+        return db.sql("LOCK TABLE problem_solve_times IN EXCLUSIVE MODE").then().then(db.sql("DELETE FROM problem_solve_times").then());
+    }
+
+    private static ProblemSolveTimes read(Row row) {
+        Long[] buckets = row.get("solve_time_buckets", Long[].class);
+        SolveTimeHistogram solveTimes = new SolveTimeHistogram(
+            row.get("solve_count", Long.class),
+            row.get("solve_seconds_sum", Long.class),
+            buckets != null ? Arrays.stream(buckets).mapToLong(Long::longValue).toArray() : new long[0]
+        );
+        return new ProblemSolveTimes(row.get("problem_id", Long.class), row.get("day", LocalDate.class), solveTimes);
+    }
+}
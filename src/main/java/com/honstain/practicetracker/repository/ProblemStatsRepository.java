@@ -0,0 +1,109 @@
+package com.honstain.practicetracker.repository;
+
+import com.honstain.practicetracker.domain.ProblemStats;
+import com.honstain.practicetracker.domain.SolveTimeHistogram;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the {@link ProblemStats} rollups, which are only ever changed by adding deltas so that concurrent
+ * transactions never overwrite each other.
+ */
+@Repository
+public class ProblemStatsRepository {
+
+    private static final String SELECT_SQL =
+        "SELECT dimension, problem, attempts, passes, timed_attempts, solve_seconds_sum, solve_time_buckets FROM problem_stats " +
+        "WHERE dimension = :dimension AND attempts > 0 ORDER BY problem";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO problem_stats AS s (dimension, problem, attempts, passes, timed_attempts, solve_seconds_sum, solve_time_buckets) " +
+        "VALUES ($1, $2, $3, $4, $5, $6, $7) ON CONFLICT (dimension, problem) DO UPDATE SET " +
+        "attempts = s.attempts + excluded.attempts, passes = s.passes + excluded.passes, " +
+        "timed_attempts = s.timed_attempts + excluded.timed_attempts, " +
+        "solve_seconds_sum = s.solve_seconds_sum + excluded.solve_seconds_sum, " +
+        "solve_time_buckets = ARRAY(SELECT a + b FROM unnest(s.solve_time_buckets, excluded.solve_time_buckets) " +
+        "WITH ORDINALITY AS t(a, b, i) ORDER BY i)";
+
+    // keeps the rows read by the rollup as they are until the rebuild commits, the practice writes wait for it
+    private static final String LOCK_SQL = "LOCK TABLE problem_stats IN EXCLUSIVE MODE";
+
+    private static final Comparator<ProblemStats> KEY_ORDER = Comparator
+        .comparing(ProblemStats::getDimension)
+        .thenComparing(ProblemStats::getProblem);
+
+    private final DatabaseClient db;
+
+    public ProblemStatsRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Flux<ProblemStats> findAllByDimension(String dimension) {
+        return db.sql(SELECT_SQL).bind("dimension", dimension).map((row, metadata) -> read(row)).all();
+    }
+
+    /**
+     * Adds the deltas to the rollups with a single batched upsert, the rows are changed in key order so that concurrent
+     * transactions lock them in the same order.
+     * @param deltas the deltas, at most one per dimension and problem.
+     * @return completion.
+     */
+    public Mono<Void> addAll(Collection<ProblemStats> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        List<ProblemStats> ordered = new ArrayList<>(deltas);
+        ordered.sort(KEY_ORDER);
+        return db
+            .inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(UPSERT_SQL);
+                for (int i = 0; i < ordered.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    ProblemStats delta = ordered.get(i);
+                    statement
+                        .bind(0, delta.getDimension())
+                        .bind(1, delta.getProblem())
+                        .bind(2, delta.getAttempts())
+                        .bind(3, delta.getPasses())
+                        .bind(4, delta.getTimedAttempts())
+                        .bind(5, delta.getSolveSecondsSum())
+                        .bind(6, LongStream.of(delta.getSolveTimes().getBuckets()).boxed().toArray(Long[]::new));
+                }
+                return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+            })
+            .then();
+    }
+
+    /**
+     * Deletes every rollup, after locking the table until the end of the transaction.
+     * @return completion.
+     */
+    public Mono<Void> lockAndDeleteAll() {
+        return db.sql(LOCK_SQL).then().then(db.sql("DELETE FROM problem_stats").then());
+    }
+
+    private static ProblemStats read(Row row) {
+        Long[] buckets = row.get("solve_time_buckets", Long[].class);
+        SolveTimeHistogram solveTimes = new SolveTimeHistogram(
+            row.get("timed_attempts", Long.class),
+            row.get("solve_seconds_sum", Long.class),
+            buckets != null ? Arrays.stream(buckets).mapToLong(Long::longValue).toArray() : new long[0]
+        );
+        ProblemStats stats = new ProblemStats(row.get("dimension", String.class), row.get("problem", String.class), solveTimes);
+        stats.setAttempts(row.get("attempts", Long.class));
+        stats.setPasses(row.get("passes", Long.class));
+        return stats;
+    }
+}
@@ -0,0 +1,101 @@
+package com.honstain.practicetracker.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded cache in front of a lookup by key, evicting by size and by time to live.
+ * <p>
+ * Concurrent lookups of the same missing id share a single load, and missing entities are not cached. The hits, misses,
+ * evictions and load times are exported with the {@code cache.*} meters, tagged with the name of the cache.
+ *
+ * @param <K> the type of the key, usually the id of the entity.
+ * @param <T> the type of the cached entity.
+ */
+public class ReadThroughCache<K, T> {
+
+    private final AsyncCache<K, T> cache;
+    private final Function<K, Mono<T>> loader;
+
+    /**
+     * @param name the name of the cache, in the meters.
+     * @param loader loads the entity of a key, or completes empty.
+     * @param maximumSize the maximum number of cached entities.
+     * @param timeToLive how long an entity is served from the cache after it was loaded.
+     * @param meterRegistry the registry of the meters.
+     */
+    public ReadThroughCache(
+        String name,
+        Function<K, Mono<T>> loader,
+        long maximumSize,
+        Duration timeToLive,
+        MeterRegistry meterRegistry
+    ) {
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+    }
+
+    /**
+     * @param id the key of the entity.
+     * @return the cached entity, or the entity loaded on a miss, or empty if there is none.
+     */
+    public Mono<T> get(K id) {
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()));
+    }
+
+    /**
+     * Evicts the entity of an id, call it when the entity is written. Inside a transaction the entity is evicted again when
+     * the transaction completes, so a concurrent lookup cannot cache the value from before the commit.
+     * @param id the key of the entity.
+     * @return completes once evicted.
+     */
+    public Mono<Void> evict(K id) {
+        return evictAndOnCompletion(() -> cache.synchronous().invalidate(id));
+    }
+
+    /**
+     * Evicts the entities of several ids, like {@link #evict(Object)}.
+     * @param ids the keys of the entities.
+     * @return completes once evicted.
+     */
+    public Mono<Void> evictAll(Collection<K> ids) {
+        return ids.isEmpty() ? Mono.empty() : evictAndOnCompletion(() -> cache.synchronous().invalidateAll(ids));
+    }
+
+    /**
+     * Evicts every entity, for writes which change the entities in a way that cannot be tracked by id.
+     * @return completes once evicted.
+     */
+    public Mono<Void> evictAll() {
+        return evictAndOnCompletion(() -> cache.synchronous().invalidateAll());
+    }
+
+    private Mono<Void> evictAndOnCompletion(Runnable eviction) {
+        return Mono
+            .fromRunnable(eviction)
+            .then(TransactionSynchronizationManager.forCurrentTransaction())
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCompletion(int status) {
+                            return Mono.fromRunnable(eviction);
+                        }
+                    }
+                )
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .then();
+    }
+}
@@ -0,0 +1,66 @@
+package com.honstain.practicetracker.repository;
+
+import java.time.Instant;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Repository of the tokens revoked before they expire.
+ * <p>
+ * The rows carry the change sequence of the {@link ChangeTrackingRepository}, so that the revocations can be read
+ * incrementally, up to its horizon.
+ */
+@Repository
+public class RevokedTokenRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO revoked_token (token_id, expires_at) VALUES (:tokenId, :expiresAt) ON CONFLICT (token_id) DO NOTHING";
+
+    private static final String CHANGED_SQL =
+        "SELECT token_id, expires_at FROM revoked_token WHERE change_seq >= :from AND change_seq < :to AND expires_at > :now";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM revoked_token WHERE expires_at <= :now";
+
+    private final DatabaseClient db;
+
+    public RevokedTokenRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Revoke a token, revoking it again has no effect.
+     * @param tokenId the id of the token.
+     * @param expiresAt when the token expires, the revocation can be deleted after it.
+     * @return completes once revoked.
+     */
+    public Mono<Void> save(String tokenId, Instant expiresAt) {
+        return db.sql(INSERT_SQL).bind("tokenId", tokenId).bind("expiresAt", expiresAt).then();
+    }
+
+    /**
+     * Find the tokens revoked with a sequence in {@code [from, to)}, which are not expired.
+     * @param from the first sequence, inclusive.
+     * @param to the last sequence, exclusive.
+     * @return the id of each token and when it expires.
+     */
+    public Flux<Tuple2<String, Instant>> findRevoked(long from, long to) {
+        return db
+            .sql(CHANGED_SQL)
+            .bind("from", from)
+            .bind("to", to)
+            .bind("now", Instant.now())
+            .map((row, metadata) -> Tuples.of(row.get("token_id", String.class), row.get("expires_at", Instant.class)))
+            .all();
+    }
+
+    /**
+     * @return the number of revocations deleted, of tokens which are expired and rejected anyway.
+     */
+    public Mono<Integer> deleteExpired() {
+        return db.sql(DELETE_EXPIRED_SQL).bind("now", Instant.now()).fetch().rowsUpdated();
+    }
+}
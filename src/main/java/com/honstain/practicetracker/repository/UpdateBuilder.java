@@ -0,0 +1,112 @@
+package com.honstain.practicetracker.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+/**
+ * Builds a single statement which updates a row by id and selects the updated row:
+ * {@code WITH updated AS (UPDATE table SET ... WHERE id = :id RETURNING *) SELECT ... FROM updated}. The select reads
+ * the {@code updated} table, so it can join the same tables as the other queries of the entity. An unknown id returns
+ * no row. The statement can also return the row as it was before the update, see {@link #returningPrevious()}.
+ */
+class UpdateBuilder {
+
+    static final String UPDATED_TABLE = "updated";
+    static final String PREVIOUS_TABLE = "previous";
+
+    private static final String PARAMETER_PREFIX = "set_";
+    private static final String ID_PARAMETER = "id";
+
+    private final EntityManager entityManager;
+    private final String tableName;
+    private final List<Assignment> assignments = new ArrayList<>();
+    private boolean returningPrevious;
+
+    UpdateBuilder(EntityManager entityManager, String tableName) {
+        this.entityManager = entityManager;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Sets the column, to null if the value is null.
+     * @param databaseType the type bound for a null value, as stored by the database.
+     */
+    UpdateBuilder set(String column, Object value, Class<?> databaseType) {
+        assignments.add(new Assignment(column, entityManager.toDatabaseValue(value), databaseType));
+        return this;
+    }
+
+    /**
+     * Sets the column only if the value is not null, for partial updates.
+     */
+    UpdateBuilder setIfNotNull(String column, Object value) {
+        if (value != null) {
+            assignments.add(new Assignment(column, entityManager.toDatabaseValue(value), null));
+        }
+        return this;
+    }
+
+    /**
+     * Also reads the row as it was before the update, locking it until it is updated:
+     * {@code WITH previous AS (SELECT * FROM table WHERE id = :id FOR UPDATE), updated AS (UPDATE table SET ... FROM previous
+     * WHERE table.id = previous.id RETURNING table.*) SELECT ...}. The select can join the {@link #PREVIOUS_TABLE} table.
+     */
+    UpdateBuilder returningPrevious() {
+        returningPrevious = true;
+        return this;
+    }
+
+    /**
+     * @return true if no column is set, there is nothing to update.
+     */
+    boolean isEmpty() {
+        return assignments.isEmpty();
+    }
+
+    /**
+     * @param select the select of the updated row, reading from the {@link #UPDATED_TABLE} table.
+     * @return the statement.
+     */
+    String toSql(String select) {
+        StringBuilder sql = new StringBuilder("WITH ");
+        if (returningPrevious) {
+            sql.append(PREVIOUS_TABLE).append(" AS (SELECT * FROM ").append(tableName);
+            sql.append(" WHERE id = :").append(ID_PARAMETER).append(" FOR UPDATE), ");
+        }
+        sql.append(UPDATED_TABLE).append(" AS (UPDATE ").append(tableName).append(" SET ");
+        for (int i = 0; i < assignments.size(); i++) {
+            String column = assignments.get(i).column;
+            sql.append(i > 0 ? ", " : "").append(column).append(" = :").append(PARAMETER_PREFIX).append(column);
+        }
+        if (returningPrevious) {
+            sql.append(" FROM ").append(PREVIOUS_TABLE).append(" WHERE ").append(tableName).append(".id = ").append(PREVIOUS_TABLE);
+            sql.append(".id RETURNING ").append(tableName).append(".*) ");
+        } else {
+            sql.append(" WHERE id = :").append(ID_PARAMETER).append(" RETURNING *) ");
+        }
+        return sql.append(select).toString();
+    }
+
+    GenericExecuteSpec bind(GenericExecuteSpec spec, Long id) {
+        spec = spec.bind(ID_PARAMETER, id);
+        for (Assignment assignment : assignments) {
+            String name = PARAMETER_PREFIX + assignment.column;
+            spec = assignment.value != null ? spec.bind(name, assignment.value) : spec.bindNull(name, assignment.databaseType);
+        }
+        return spec;
+    }
+
+    private static final class Assignment {
+
+        private final String column;
+        private final Object value;
+        private final Class<?> databaseType;
+
+        private Assignment(String column, Object value, Class<?> databaseType) {
+            this.column = column;
+            this.value = value;
+            this.databaseType = databaseType;
+        }
+    }
+}
@@ -7,16 +7,20 @@ import com.honstain.practicetracker.domain.Authority;
 import com.honstain.practicetracker.domain.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
@@ -94,28 +98,36 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().orElse("id");
-        String direction = String.valueOf(
-            pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION)
-        );
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
-
+        // like the in-memory sort, only the first order counts, the id breaks ties so pages never overlap
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.by("id"));
+        Sort sort = "id".equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, Sort.Order.asc("id"));
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+            .sql("SELECT * FROM jhi_user ORDER BY " + createOrderBy(sort) + " LIMIT :limit OFFSET :offset")
+            .bind("limit", pageable.getPageSize())
+            .bind("offset", pageable.getOffset())
+            .map((row, metadata) -> r2dbcConverter.read(User.class, row, metadata))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .collectList()
+            .flatMapMany(users -> findAuthoritiesByUserIds(users).map(authorities -> updateUsersWithAuthorities(users, authorities)))
+            .flatMapIterable(users -> users);
+    }
+
+    /**
+     * The text columns are compared with the "C" collation, by code point like {@link String#compareTo(String)}, so the
+     * users keep the order they were sorted in when the pages were sliced in memory, whatever the database collation.
+     */
+    private String createOrderBy(Sort sort) {
+        RelationalPersistentEntity<?> entity = r2dbcConverter.getMappingContext().getRequiredPersistentEntity(User.class);
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            RelationalPersistentProperty property = entity.getRequiredPersistentProperty(order.getProperty());
+            String column = property.getColumnName().getReference();
+            if (String.class.equals(property.getType())) {
+                column += " COLLATE \"C\"";
+            }
+            orders.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return String.join(", ", orders);
     }
 
     @Override
@@ -140,6 +152,35 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .map(l -> updateUserWithAuthorities(l.get(0).getT1(), l));
     }
 
+    private Mono<Map<Long, Collection<String>>> findAuthoritiesByUserIds(List<User> users) {
+        if (users.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return db
+            .sql("SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (:userIds)")
+            .bind("userIds", users.stream().map(User::getId).collect(Collectors.toList()))
+            .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
+            .all()
+            .collectMultimap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    private List<User> updateUsersWithAuthorities(List<User> users, Map<Long, Collection<String>> authoritiesByUserId) {
+        for (User user : users) {
+            user.setAuthorities(
+                authoritiesByUserId
+                    .getOrDefault(user.getId(), Collections.emptyList())
+                    .stream()
+                    .map(name -> {
+                        Authority authority = new Authority();
+                        authority.setName(name);
+                        return authority;
+                    })
+                    .collect(Collectors.toSet())
+            );
+        }
+        return users;
+    }
+
     private User updateUserWithAuthorities(User user, List<Tuple2<User, Optional<String>>> tuples) {
         user.setAuthorities(
             tuples
@@ -1,6 +1,10 @@
 package com.honstain.practicetracker.repository.rowmapper;
 
+import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.List;
+import java.util.function.Function;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -63,4 +67,52 @@ public class ColumnConverter {
             return convert(obj, target);
         }
     }
+
+    /**
+     * Create a reader of a column of the rows described by the metadata, the column index and the conversion are
+     * resolved once here instead of for every row.
+     * @param metadata the metadata of the rows which will be read.
+     * @param columnName the name of the column, case-insensitive.
+     * @param target class.
+     * @param <T> the parameter for the intended type.
+     * @return the reader of the column.
+     * @throws IllegalArgumentException if the rows have no such column.
+     */
+    public <T> ColumnReader<T> columnReader(RowMetadata metadata, String columnName, Class<T> target) {
+        int index = indexOf(metadata, columnName);
+        Class<?> javaType = metadata.getColumnMetadata(index).getJavaType();
+        if (javaType == null || javaType == Object.class) {
+            // the driver does not tell the type up front, convert whatever it returns
+            return row -> convert(row.get(index), target);
+        }
+        if (ClassUtils.isAssignable(target, javaType)) {
+            return row -> row.get(index, target);
+        }
+        Function<Object, T> conversion = conversion(javaType, target);
+        return row -> {
+            Object value = row.get(index);
+            return value != null ? conversion.apply(value) : null;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Function<Object, T> conversion(Class<?> source, Class<T> target) {
+        if (conversions.hasCustomReadTarget(source, target)) {
+            return value -> conversionService.convert(value, target);
+        }
+        if (Enum.class.isAssignableFrom(target)) {
+            return value -> (T) Enum.valueOf((Class<Enum>) target, value.toString());
+        }
+        return value -> convert(value, target);
+    }
+
+    private static int indexOf(RowMetadata metadata, String columnName) {
+        List<? extends ColumnMetadata> columns = metadata.getColumnMetadatas();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + columnName);
+    }
 }
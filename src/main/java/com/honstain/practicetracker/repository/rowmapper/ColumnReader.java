@@ -0,0 +1,17 @@
+package com.honstain.practicetracker.repository.rowmapper;
+
+import io.r2dbc.spi.Row;
+
+/**
+ * Reads one column of a {@link Row}, created by {@link ColumnConverter#columnReader} with the column index and the type
+ * conversion already resolved.
+ * @param <T> the type of the value.
+ */
+@FunctionalInterface
+public interface ColumnReader<T> {
+    /**
+     * @param row a row described by the metadata the reader was created with.
+     * @return the value of the column, converted to the target type.
+     */
+    T read(Row row);
+}
@@ -0,0 +1,58 @@
+package com.honstain.practicetracker.repository.rowmapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the mapping plans by column prefix and column layout: the names, order and Java types of the columns. Every
+ * result of a query has the same layout, so a plan is compiled once per query and prefix, and the results read at the
+ * same time on other connections share it instead of evicting each other's plan.
+ * <p>
+ * All the rows of a result share the same {@link RowMetadata} instance, the plans are also remembered for that instance,
+ * compared by identity and weakly referenced, so the layout is only computed once per result and not for each row.
+ * @param <P> the type of the plan.
+ */
+class MappingPlans<P> {
+
+    // every query and join has its own layout, the bound only guards against queries generated without end
+    private static final int MAX_LAYOUTS = 256;
+
+    private final BiFunction<RowMetadata, String, P> compiler;
+    private final Cache<List<Object>, P> plansByLayout = Caffeine.newBuilder().maximumSize(MAX_LAYOUTS).build();
+    private final Cache<RowMetadata, Map<String, P>> plansByResult = Caffeine.newBuilder().weakKeys().build();
+
+    /**
+     * @param compiler creates the plan for the given metadata and column prefix.
+     */
+    MappingPlans(BiFunction<RowMetadata, String, P> compiler) {
+        this.compiler = compiler;
+    }
+
+    P get(RowMetadata metadata, String prefix) {
+        Map<String, P> plans = plansByResult.get(metadata, result -> new ConcurrentHashMap<>());
+        P plan = plans.get(prefix);
+        if (plan == null) {
+            plan = plansByLayout.get(layoutOf(metadata, prefix), layout -> compiler.apply(metadata, prefix));
+            plans.put(prefix, plan);
+        }
+        return plan;
+    }
+
+    private static List<Object> layoutOf(RowMetadata metadata, String prefix) {
+        List<? extends ColumnMetadata> columns = metadata.getColumnMetadatas();
+        List<Object> layout = new ArrayList<>(2 * columns.size() + 1);
+        layout.add(prefix);
+        for (ColumnMetadata column : columns) {
+            layout.add(column.getName());
+            layout.add(column.getJavaType());
+        }
+        return layout;
+    }
+}
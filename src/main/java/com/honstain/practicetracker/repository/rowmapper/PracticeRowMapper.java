@@ -3,6 +3,7 @@ package com.honstain.practicetracker.repository.rowmapper;
 import com.honstain.practicetracker.domain.Practice;
 import com.honstain.practicetracker.domain.enumeration.PracticeResult;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.time.ZonedDateTime;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,8 @@ public class PracticeRowMapper implements BiFunction<Row, String, Practice> {
 
     private final ColumnConverter converter;
 
+    private final MappingPlans<Plan> plans = new MappingPlans<>(this::compile);
+
     public PracticeRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
@@ -25,14 +28,61 @@ public class PracticeRowMapper implements BiFunction<Row, String, Practice> {
      */
     @Override
     public Practice apply(Row row, String prefix) {
+        Plan plan = plans.get(row.getMetadata(), prefix);
         Practice entity = new Practice();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setProblemName(converter.fromRow(row, prefix + "_problem_name", String.class));
-        entity.setProblemLink(converter.fromRow(row, prefix + "_problem_link", String.class));
-        entity.setStart(converter.fromRow(row, prefix + "_start", ZonedDateTime.class));
-        entity.setEnd(converter.fromRow(row, prefix + "_jhi_end", ZonedDateTime.class));
-        entity.setResult(converter.fromRow(row, prefix + "_result", PracticeResult.class));
-        entity.setPracticeSessionId(converter.fromRow(row, prefix + "_practice_session_id", Long.class));
+        entity.setId(plan.id.read(row));
+        entity.setProblemName(plan.problemName.read(row));
+        entity.setProblemLink(plan.problemLink.read(row));
+        entity.setStart(plan.start.read(row));
+        entity.setEnd(plan.end.read(row));
+        entity.setResult(plan.result.read(row));
+        entity.setPracticeSessionId(plan.practiceSessionId.read(row));
+        entity.setProblemId(plan.problemId.read(row));
         return entity;
     }
+
+    private Plan compile(RowMetadata metadata, String prefix) {
+        return new Plan(
+            converter.columnReader(metadata, prefix + "_id", Long.class),
+            converter.columnReader(metadata, prefix + "_problem_name", String.class),
+            converter.columnReader(metadata, prefix + "_problem_link", String.class),
+            converter.columnReader(metadata, prefix + "_start", ZonedDateTime.class),
+            converter.columnReader(metadata, prefix + "_jhi_end", ZonedDateTime.class),
+            converter.columnReader(metadata, prefix + "_result", PracticeResult.class),
+            converter.columnReader(metadata, prefix + "_practice_session_id", Long.class),
+            converter.columnReader(metadata, prefix + "_problem_id", Long.class)
+        );
+    }
+
+    private static final class Plan {
+
+        private final ColumnReader<Long> id;
+        private final ColumnReader<String> problemName;
+        private final ColumnReader<String> problemLink;
+        private final ColumnReader<ZonedDateTime> start;
+        private final ColumnReader<ZonedDateTime> end;
+        private final ColumnReader<PracticeResult> result;
+        private final ColumnReader<Long> practiceSessionId;
+        private final ColumnReader<Long> problemId;
+
+        private Plan(
+            ColumnReader<Long> id,
+            ColumnReader<String> problemName,
+            ColumnReader<String> problemLink,
+            ColumnReader<ZonedDateTime> start,
+            ColumnReader<ZonedDateTime> end,
+            ColumnReader<PracticeResult> result,
+            ColumnReader<Long> practiceSessionId,
+            ColumnReader<Long> problemId
+        ) {
+            this.id = id;
+            this.problemName = problemName;
+            this.problemLink = problemLink;
+            this.start = start;
+            this.end = end;
+            this.result = result;
+            this.practiceSessionId = practiceSessionId;
+            this.problemId = problemId;
+        }
+    }
 }
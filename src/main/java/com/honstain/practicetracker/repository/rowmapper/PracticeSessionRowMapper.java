@@ -2,6 +2,7 @@ package com.honstain.practicetracker.repository.rowmapper;
 
 import com.honstain.practicetracker.domain.PracticeSession;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.time.ZonedDateTime;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,8 @@ public class PracticeSessionRowMapper implements BiFunction<Row, String, Practic
 
     private final ColumnConverter converter;
 
+    private final MappingPlans<Plan> plans = new MappingPlans<>(this::compile);
+
     public PracticeSessionRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
@@ -24,10 +27,32 @@ public class PracticeSessionRowMapper implements BiFunction<Row, String, Practic
      */
     @Override
     public PracticeSession apply(Row row, String prefix) {
+        Plan plan = plans.get(row.getMetadata(), prefix);
         PracticeSession entity = new PracticeSession();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setStart(converter.fromRow(row, prefix + "_start", ZonedDateTime.class));
-        entity.setEnd(converter.fromRow(row, prefix + "_jhi_end", ZonedDateTime.class));
+        entity.setId(plan.id.read(row));
+        entity.setStart(plan.start.read(row));
+        entity.setEnd(plan.end.read(row));
         return entity;
     }
+
+    private Plan compile(RowMetadata metadata, String prefix) {
+        return new Plan(
+            converter.columnReader(metadata, prefix + "_id", Long.class),
+            converter.columnReader(metadata, prefix + "_start", ZonedDateTime.class),
+            converter.columnReader(metadata, prefix + "_jhi_end", ZonedDateTime.class)
+        );
+    }
+
+    private static final class Plan {
+
+        private final ColumnReader<Long> id;
+        private final ColumnReader<ZonedDateTime> start;
+        private final ColumnReader<ZonedDateTime> end;
+
+        private Plan(ColumnReader<Long> id, ColumnReader<ZonedDateTime> start, ColumnReader<ZonedDateTime> end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package com.honstain.practicetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.management.SecurityMetersService;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limiter of the authentication attempts, per login and per client address.
+ * <p>
+ * Each login and each address has a token bucket of {@code application.login-rate-limit.*-capacity} attempts, which
+ * regains one attempt every {@code *-refill-period}. The bucket is a single {@link AtomicLong} updated with compare and
+ * set, and the buckets are held in a Caffeine cache, which is striped, so concurrent attempts never lock. A bucket unused
+ * for {@code idle-timeout} expires, by then it is full again so nothing is lost. Past {@code maximum-size} keys the least
+ * used buckets are evicted, which refills them early.
+ * <p>
+ * The logins are chosen by the clients, so a login only gets a bucket after a wrong password for an existing account,
+ * see {@link #loginFailed(String)}. A flood of made up logins creates no login bucket and cannot evict the bucket of a
+ * login under attack: that takes failed attempts against more than {@code maximum-size} existing accounts, each of them
+ * limited by the bucket of its address.
+ * <p>
+ * An attempt is checked before its password is hashed, so a burst of attempts against a login or from an address costs
+ * no hash once its bucket is empty, while an occasional mistyped password is never limited.
+ */
+@Component
+public class AuthenticationRateLimiter {
+
+    private final TokenBuckets loginBuckets;
+
+    private final TokenBuckets addressBuckets;
+
+    private final SecurityMetersService securityMetersService;
+
+    @Autowired
+    public AuthenticationRateLimiter(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        this(applicationProperties, securityMetersService, Ticker.systemTicker());
+    }
+
+    AuthenticationRateLimiter(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService, Ticker ticker) {
+        ApplicationProperties.LoginRateLimit properties = applicationProperties.getLoginRateLimit();
+        this.loginBuckets =
+            new TokenBuckets(
+                properties.getLoginCapacity(),
+                properties.getLoginRefillPeriod(),
+                properties.getIdleTimeout(),
+                properties.getMaximumSize(),
+                ticker
+            );
+        this.addressBuckets =
+            new TokenBuckets(
+                properties.getAddressCapacity(),
+                properties.getAddressRefillPeriod(),
+                properties.getIdleTimeout(),
+                properties.getMaximumSize(),
+                ticker
+            );
+        this.securityMetersService = securityMetersService;
+    }
+
+    /**
+     * Takes an attempt from the bucket of the address, then from the bucket of the login if it has one.
+     *
+     * @param login the login or email to authenticate, it is compared ignoring its case.
+     * @param address the address of the client, or null if it is unknown.
+     * @return {@link Duration#ZERO} if the attempt is allowed, otherwise how long until the next attempt is allowed.
+     */
+    public Duration tryAcquire(@Nullable String login, @Nullable String address) {
+        if (address != null) {
+            long wait = addressBuckets.tryAcquire(address, true);
+            if (wait > 0) {
+                securityMetersService.trackAddressRateLimited();
+                return Duration.ofNanos(wait);
+            }
+        }
+        if (login != null) {
+            long wait = loginBuckets.tryAcquire(login.toLowerCase(Locale.ENGLISH), false);
+            if (wait > 0) {
+                securityMetersService.trackLoginRateLimited();
+                return Duration.ofNanos(wait);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    /**
+     * Gives the login a bucket, with the failed attempt taken, so that its next attempts are limited. Call it when the
+     * password of an existing account is wrong, never for an unknown login.
+     *
+     * @param login the login or email of the account, it is compared ignoring its case.
+     */
+    public void loginFailed(String login) {
+        loginBuckets.createIfAbsent(login.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * The token buckets of a kind of key, which share their capacity and refill period.
+     * <p>
+     * A bucket is stored as its theoretical arrival time: the time at which it would be full again, were no attempt made
+     * meanwhile. An attempt moves it one refill period later, and is rejected when it would move it more than the whole
+     * capacity past the current time. This is a token bucket, held in a single long.
+     */
+    private static final class TokenBuckets {
+
+        private final long refillPeriod;
+
+        private final long burst;
+
+        private final Ticker ticker;
+
+        private final Cache<String, AtomicLong> buckets;
+
+        private TokenBuckets(int capacity, Duration refillPeriod, Duration idleTimeout, long maximumSize, Ticker ticker) {
+            this.refillPeriod = refillPeriod.toNanos();
+            this.burst = capacity * this.refillPeriod;
+            this.ticker = ticker;
+            // a bucket is full again after the time to regain its whole capacity, evicting it sooner would refill it early
+            long expireAfterAccess = Math.max(idleTimeout.toNanos(), burst);
+            this.buckets =
+                Caffeine
+                    .newBuilder()
+                    .expireAfterAccess(Duration.ofNanos(expireAfterAccess))
+                    .maximumSize(maximumSize)
+                    .ticker(ticker)
+                    .build();
+        }
+
+        /**
+         * @param create true to create the bucket of a new key, false to allow the attempts of a key without bucket.
+         * @return 0 if an attempt was taken, otherwise the nanoseconds until the next attempt is allowed.
+         */
+        private long tryAcquire(String key, boolean create) {
+            long now = ticker.read();
+            AtomicLong bucket = create ? buckets.get(key, k -> new AtomicLong(now)) : buckets.getIfPresent(key);
+            if (bucket == null) {
+                return 0;
+            }
+            while (true) {
+                long arrival = bucket.get();
+                long next = Math.max(arrival, now) + refillPeriod;
+                long wait = next - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Creates the bucket of a key with one attempt taken, a key which has a bucket already took its attempt.
+         */
+        private void createIfAbsent(String key) {
+            buckets.get(key, k -> new AtomicLong(ticker.read() + refillPeriod));
+        }
+    }
+}
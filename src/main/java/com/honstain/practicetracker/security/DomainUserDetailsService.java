@@ -1,8 +1,11 @@
 package com.honstain.practicetracker.security;
 
+import com.honstain.practicetracker.config.ApplicationProperties;
 import com.honstain.practicetracker.domain.Authority;
 import com.honstain.practicetracker.domain.User;
+import com.honstain.practicetracker.repository.ReadThroughCache;
 import com.honstain.practicetracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
@@ -19,6 +22,10 @@ import reactor.core.publisher.Mono;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The user details are cached for a short time, so that bursts of logins of the same accounts do not each query the user
+ * and its authorities. Users which are not found or not activated are not cached. The {@link
+ * com.honstain.practicetracker.service.UserService} evicts the cache on every write of a user.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements ReactiveUserDetailsService {
@@ -27,14 +34,43 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final ReadThroughCache<String, UserDetails> userDetailsCache;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
+        ApplicationProperties.Cache cacheProperties = applicationProperties.getCache();
+        this.userDetailsCache =
+            new ReadThroughCache<>(
+                "userDetails",
+                this::loadByUsername,
+                cacheProperties.getUserDetailsMaximumSize(),
+                cacheProperties.getUserDetailsTimeToLive(),
+                meterRegistry
+            );
     }
 
     @Override
     @Transactional(readOnly = true)
     public Mono<UserDetails> findByUsername(final String login) {
         log.debug("Authenticating {}", login);
+        // an email is looked up ignoring its case, so both a login and an email are cached lowercase
+        return userDetailsCache.get(login.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Evicts every cached user details, call it when a user is written: the login and the email of a user can both change,
+     * so the entries of a user cannot be tracked by key. Inside a transaction they are evicted again once it completes.
+     * @return completes once evicted.
+     */
+    public Mono<Void> evictAll() {
+        return userDetailsCache.evictAll();
+    }
+
+    private Mono<UserDetails> loadByUsername(final String login) {
 
         if (new EmailValidator().isValid(login, null)) {
             return userRepository
@@ -0,0 +1,22 @@
+package com.honstain.practicetracker.security;
+
+import java.time.Duration;
+
+/**
+ * This exception is thrown when the authentication attempts of a login or of a client address exceed its rate limit.
+ */
+public class TooManyAuthenticationAttemptsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TooManyAuthenticationAttemptsException(Duration retryAfter) {
+        super("Too many authentication attempts, try again later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,52 @@
+package com.honstain.practicetracker.security.jwt;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Canonical pool of the immutable authority collections of the tokens, keyed by the raw {@code auth} claim.
+ * <p>
+ * There are only a handful of authority combinations, so the claim is split once per combination instead of once per
+ * token. The pool is bounded: past {@link #MAX_SIZE} combinations the authorities are built without being pooled.
+ */
+final class AuthorityPool {
+
+    static final int MAX_SIZE = 256;
+
+    private final Map<String, List<GrantedAuthority>> pool = new ConcurrentHashMap<>();
+
+    /**
+     * @param claim the comma separated authorities.
+     * @return the immutable authorities of the claim, the same instance for equal claims.
+     */
+    List<GrantedAuthority> authorities(String claim) {
+        List<GrantedAuthority> authorities = pool.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        if (pool.size() >= MAX_SIZE) {
+            return parse(claim);
+        }
+        return pool.computeIfAbsent(claim, AuthorityPool::parse);
+    }
+
+    int size() {
+        return pool.size();
+    }
+
+    private static List<GrantedAuthority> parse(String claim) {
+        return Collections.unmodifiableList(
+            Arrays
+                .stream(claim.split(","))
+                .filter(auth -> !auth.trim().isEmpty())
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList())
+        );
+    }
+}
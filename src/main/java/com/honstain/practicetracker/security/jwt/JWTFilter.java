@@ -1,7 +1,17 @@
 package com.honstain.practicetracker.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
@@ -12,27 +22,70 @@ import reactor.core.publisher.Mono;
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
  * found.
+ * <p>
+ * A token is verified once, then its authentication is served from a bounded cache until the token expires. The cache
+ * is keyed by the SHA-256 digest of the token, which is cheaper than verifying its HMAC signature and parsing its claims.
+ * Invalid tokens are not cached, so each of them is counted by the {@code SecurityMetersService}.
+ * <p>
+ * A verified token, cached or not, is then checked against the {@link RevokedTokens}, which answer from memory.
  */
 public class JWTFilter implements WebFilter {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
+    public static final long DEFAULT_CACHE_SIZE = 10000;
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
     private final TokenProvider tokenProvider;
 
+    private final RevokedTokens revokedTokens;
+
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+
     public JWTFilter(TokenProvider tokenProvider) {
         this.tokenProvider = tokenProvider;
+        this.revokedTokens = RevokedTokens.NONE;
+        this.verifiedTokens = createCache(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param tokenProvider verifies the tokens.
+     * @param revokedTokens the tokens revoked before they expire.
+     * @param cacheSize the maximum number of verified tokens cached.
+     * @param meterRegistry the registry of the {@code cache.*} meters of the verified tokens.
+     */
+    public JWTFilter(TokenProvider tokenProvider, RevokedTokens revokedTokens, long cacheSize, MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.revokedTokens = revokedTokens;
+        this.verifiedTokens = createCache(cacheSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+    }
+
+    private static Cache<ByteBuffer, VerifiedToken> createCache(long cacheSize) {
+        return Caffeine.newBuilder().maximumSize(cacheSize).expireAfter(new UntilTokenExpiration()).recordStats().build();
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String jwt = resolveToken(exchange.getRequest());
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        if (StringUtils.hasText(jwt)) {
+            // a token which is not valid is not cached, get returns null
+            VerifiedToken verifiedToken = verifiedTokens.get(digest(jwt), key -> tokenProvider.verifyToken(jwt));
+            if (verifiedToken != null && !isRevoked(verifiedToken)) {
+                return chain
+                    .filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(verifiedToken.getAuthentication()));
+            }
         }
         return chain.filter(exchange);
     }
 
+    // the tokens issued before they had an id cannot be revoked
+    private boolean isRevoked(VerifiedToken verifiedToken) {
+        return verifiedToken.getTokenId() != null && revokedTokens.isRevoked(verifiedToken.getTokenId());
+    }
+
     private String resolveToken(ServerHttpRequest request) {
         String bearerToken = request.getHeaders().getFirst(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -40,4 +93,39 @@ public class JWTFilter implements WebFilter {
         }
         return null;
     }
+
+    private static ByteBuffer digest(String jwt) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expires a verified token when the token itself expires, so that an expired token is verified again, and rejected.
+     */
+    private static final class UntilTokenExpiration implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            Instant expiration = value.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long millis = expiration.toEpochMilli() - System.currentTimeMillis();
+            return millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.honstain.practicetracker.security.jwt;
+
+/**
+ * The ids of the tokens revoked before they expire, checked by the {@link JWTFilter} on every request.
+ */
+@FunctionalInterface
+public interface RevokedTokens {
+    /**
+     * No token is revoked.
+     */
+    RevokedTokens NONE = tokenId -> false;
+
+    /**
+     * @param tokenId the id of a verified token.
+     * @return whether the token is revoked, answered from memory since it is called on every request.
+     */
+    boolean isRevoked(String tokenId);
+}
@@ -0,0 +1,40 @@
+package com.honstain.practicetracker.security.jwt;
+
+import java.time.Instant;
+import org.springframework.security.core.Authentication;
+
+/**
+ * A token whose signature and expiration were verified, with the authentication built from its claims.
+ */
+public final class VerifiedToken {
+
+    private final Authentication authentication;
+
+    private final Instant expiration;
+
+    private final String tokenId;
+
+    VerifiedToken(Authentication authentication, Instant expiration, String tokenId) {
+        this.authentication = authentication;
+        this.expiration = expiration;
+        this.tokenId = tokenId;
+    }
+
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    /**
+     * @return the id of the token, or null for the tokens issued before they had one, which cannot be revoked.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * @return when the token expires, or null if it does not.
+     */
+    public Instant getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,41 @@
+package com.honstain.practicetracker.service;
+
+import java.util.function.Supplier;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the in-memory updates which must only see committed writes.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    /**
+     * Runs the action once the current transaction commits, or right away if there is no transaction. A rolled back
+     * transaction never runs it.
+     * @param action the action.
+     * @return completes once the action is registered, or once it ran if there is no transaction.
+     */
+    static Mono<Void> run(Supplier<Mono<Void>> action) {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .map(synchronizationManager -> {
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return action.get();
+                        }
+                    }
+                );
+                return true;
+            })
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .switchIfEmpty(Mono.defer(() -> action.get().thenReturn(false)))
+            .then();
+    }
+}
@@ -0,0 +1,100 @@
+package com.honstain.practicetracker.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings: {@link #mightContain(String)} never misses a string which was added, and answers true for
+ * a string which was not with the false positive probability it was sized for.
+ * <p>
+ * The bits are set atomically, so strings can be added while others are looked up, without lock.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final int expectedInsertions;
+
+    /**
+     * @param expectedInsertions the number of strings the filter is sized for.
+     * @param falsePositiveProbability the false positive probability once the expected strings are added.
+     */
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        int insertions = Math.max(expectedInsertions, 1);
+        long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((Math.max(optimalBits, 64) + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+        this.expectedInsertions = insertions;
+    }
+
+    int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    void add(String value) {
+        long hash1 = hash1(value);
+        long hash2 = hash2(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = bits.get(index);
+            while ((word & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+                word = bits.get(index);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash1(value);
+        long hash2 = hash2(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the false positive probability for the current share of bits set.
+     */
+    double expectedFalsePositiveProbability() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    // the bit i is derived from two independent hashes, as hash1 + i * hash2 (Kirsch and Mitzenmacher)
+    private static long hash1(String value) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long hash2(String value) {
+        // an odd step, so that the hashCount bits differ
+        return mix(value.hashCode() * 0x9e3779b97f4a7c15L + value.length()) | 1;
+    }
+
+    // the finalizer of MurmurHash3, which spreads every input bit over the whole hash
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
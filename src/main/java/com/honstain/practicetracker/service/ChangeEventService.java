@@ -0,0 +1,101 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.service.dto.ChangeEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Service class publishing the changes of the practices and practice sessions to the subscribers of the event stream.
+ * <p>
+ * The events are published once the write commits, to every current subscriber. A subscriber which reads slower than the
+ * changes are written keeps at most {@code application.events.subscriber-buffer-size} events, the oldest are dropped and
+ * counted by the {@code practice.events.dropped} meter, so a slow client never holds back the writes nor the other clients.
+ */
+@Service
+public class ChangeEventService implements PracticeWriteListener {
+
+    public static final String PRACTICE = "practice";
+    public static final String PRACTICE_SESSION = "practiceSession";
+
+    private final Sinks.Many<ChangeEventDTO> sink = Sinks.many().multicast().directBestEffort();
+
+    private final int subscriberBufferSize;
+
+    private final Counter droppedEvents;
+
+    private long sequence;
+
+    public ChangeEventService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.subscriberBufferSize = applicationProperties.getEvents().getSubscriberBufferSize();
+        this.droppedEvents = Counter
+            .builder("practice.events.dropped")
+            .description("Change events dropped for subscribers reading slower than the changes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the events published from now on, until the subscription is cancelled.
+     */
+    public Flux<ChangeEventDTO> subscribe() {
+        return sink
+            .asFlux()
+            .onBackpressureBuffer(subscriberBufferSize, dropped -> droppedEvents.increment(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    @Override
+    public Mono<Void> practicesCreated(Collection<Practice> practices) {
+        List<ChangeEventDTO> events = practices
+            .stream()
+            .map(practice -> new ChangeEventDTO(PRACTICE, ChangeEventDTO.CREATED, practice.getId(), practice))
+            .collect(Collectors.toList());
+        return publishAfterCommit(events);
+    }
+
+    @Override
+    public Mono<Void> practiceUpdated(Practice previous, Practice updated) {
+        return publishAfterCommit(List.of(new ChangeEventDTO(PRACTICE, ChangeEventDTO.UPDATED, updated.getId(), updated)));
+    }
+
+    @Override
+    public Mono<Void> practiceDeleted(Practice previous) {
+        return publishAfterCommit(List.of(new ChangeEventDTO(PRACTICE, ChangeEventDTO.DELETED, previous.getId(), null)));
+    }
+
+    public Mono<Void> practiceSessionCreated(PracticeSession practiceSession) {
+        return publishAfterCommit(
+            List.of(new ChangeEventDTO(PRACTICE_SESSION, ChangeEventDTO.CREATED, practiceSession.getId(), practiceSession))
+        );
+    }
+
+    public Mono<Void> practiceSessionUpdated(PracticeSession practiceSession) {
+        return publishAfterCommit(
+            List.of(new ChangeEventDTO(PRACTICE_SESSION, ChangeEventDTO.UPDATED, practiceSession.getId(), practiceSession))
+        );
+    }
+
+    public Mono<Void> practiceSessionDeleted(Long id) {
+        return publishAfterCommit(List.of(new ChangeEventDTO(PRACTICE_SESSION, ChangeEventDTO.DELETED, id, null)));
+    }
+
+    private Mono<Void> publishAfterCommit(List<ChangeEventDTO> events) {
+        return AfterCommit.run(() -> Mono.fromRunnable(() -> events.forEach(this::publish)));
+    }
+
+    // the sink must not be emitted to concurrently, and the sequence follows the order of emission
+    private synchronized void publish(ChangeEventDTO event) {
+        event.setSequence(++sequence);
+        // without subscriber the event is dropped, which is the expected outcome
+        sink.tryEmitNext(event);
+    }
+}
@@ -0,0 +1,110 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.repository.ChangeTrackingRepository;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.PracticeSessionRepository;
+import com.honstain.practicetracker.service.dto.ChangesDTO;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class answering the delta sync of the clients, which only read the practices and practice sessions written
+ * and deleted since their last sync instead of every row.
+ * <p>
+ * The sync token is the horizon of {@link ChangeTrackingRepository} when the changes were read: the next sync returns
+ * the writes from that horizon to the current one, so no committed write is returned twice nor missed, whatever the
+ * order the transactions commit in. A row written again in between is returned once, as it is now.
+ * <p>
+ * The tombstones of the deletes are purged after a while, so a token not above the highest purged sequence may miss
+ * deletes: it is answered like a first sync, with every row, and the client replaces its copy.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeSyncService {
+
+    /**
+     * The token of a first sync, which returns every row.
+     */
+    public static final long FULL_SYNC = 0L;
+
+    private final ChangeTrackingRepository changeTrackingRepository;
+
+    private final PracticeRepository practiceRepository;
+
+    private final PracticeSessionRepository practiceSessionRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ChangeSyncService(
+        ChangeTrackingRepository changeTrackingRepository,
+        PracticeRepository practiceRepository,
+        PracticeSessionRepository practiceSessionRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.changeTrackingRepository = changeTrackingRepository;
+        this.practiceRepository = practiceRepository;
+        this.practiceSessionRepository = practiceSessionRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Get the changes since a sync token.
+     * @param since the token returned by the previous sync, or {@link #FULL_SYNC}.
+     * @return the rows written and deleted since the token, or every row if the token is older than the tombstones, and
+     * the token of the next sync.
+     */
+    public Mono<ChangesDTO> findChangesSince(long since) {
+        if (since == FULL_SYNC) {
+            return findChanges(FULL_SYNC);
+        }
+        // checked again once the tombstones are read, in case a purge committed meanwhile
+        return isPurgedSince(since)
+            .flatMap(purged ->
+                purged
+                    ? findChanges(FULL_SYNC)
+                    : findChanges(since)
+                        .filterWhen(changes -> isPurgedSince(since).map(purgedMeanwhile -> !purgedMeanwhile))
+                        .switchIfEmpty(Mono.defer(() -> findChanges(FULL_SYNC)))
+            );
+    }
+
+    private Mono<Boolean> isPurgedSince(long since) {
+        return changeTrackingRepository.findPurgedThrough().map(purgedThrough -> since <= purgedThrough);
+    }
+
+    private Mono<ChangesDTO> findChanges(long since) {
+        // the horizon must be read first, the rows written after it are returned by the next sync
+        return changeTrackingRepository
+            .findHorizon()
+            .flatMap(horizon ->
+                practiceRepository
+                    .streamChanged(since, horizon, applicationProperties.getExport().getFetchSize())
+                    .collectList()
+                    .flatMap(practices ->
+                        practiceSessionRepository
+                            .findAllChanged(since, horizon)
+                            .collectList()
+                            .flatMap(practiceSessions ->
+                                findDeleted(since, horizon)
+                                    .map(deleted ->
+                                        new ChangesDTO(since == FULL_SYNC, practices, practiceSessions, deleted, String.valueOf(horizon))
+                                    )
+                            )
+                    )
+            );
+    }
+
+    // a client without token holds no row, so it has nothing to delete
+    private Mono<List<ChangesDTO.Tombstone>> findDeleted(long since, long horizon) {
+        if (since == FULL_SYNC) {
+            return Mono.just(List.of());
+        }
+        return changeTrackingRepository
+            .findTombstones(since, horizon)
+            .map(tombstone -> new ChangesDTO.Tombstone(tombstone.getT1(), tombstone.getT2()))
+            .collectList();
+    }
+}
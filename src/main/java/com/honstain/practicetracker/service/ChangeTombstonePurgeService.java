@@ -0,0 +1,59 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.repository.ChangeTrackingRepository;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class purging the tombstones of the deletes once older than {@code application.sync.tombstone-retention}, on
+ * the schedule {@code application.sync.purge-cron}, so that the tombstone table does not grow with every delete ever
+ * made. A client whose sync token is older than the purged tombstones is answered with every row, see
+ * {@link ChangeSyncService}.
+ */
+@Service
+public class ChangeTombstonePurgeService {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeTombstonePurgeService.class);
+
+    private final ChangeTrackingRepository changeTrackingRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ChangeTombstonePurgeService(ChangeTrackingRepository changeTrackingRepository, ApplicationProperties applicationProperties) {
+        this.changeTrackingRepository = changeTrackingRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Purges the old tombstones, on the schedule {@code application.sync.purge-cron}.
+     */
+    @Scheduled(cron = "${application.sync.purge-cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        purge()
+            .onErrorResume(e -> {
+                log.error("Failed to purge the change tombstones, they are purged on the next schedule", e);
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    /**
+     * Deletes the tombstones older than {@code application.sync.tombstone-retention}.
+     * @return the number of tombstones deleted.
+     */
+    public Mono<Long> purge() {
+        Instant before = Instant.now().minus(applicationProperties.getSync().getTombstoneRetention());
+        return changeTrackingRepository
+            .purgeTombstones(before)
+            .doOnNext(purged -> {
+                if (purged > 0) {
+                    log.info("Purged {} change tombstones recorded before {}", purged, before);
+                }
+            });
+    }
+}
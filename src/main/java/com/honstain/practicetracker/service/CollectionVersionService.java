@@ -0,0 +1,33 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.repository.CollectionVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class computing the entity tag of the practice and practice session collections, so that a client which already
+ * has the current collections is answered without reading them.
+ * <p>
+ * The tag is the version of both tables kept by the database, see {@link CollectionVersionRepository}, so every instance
+ * computes the same tag and sees the writes of the others.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CollectionVersionService {
+
+    private final CollectionVersionRepository collectionVersionRepository;
+
+    public CollectionVersionService(CollectionVersionRepository collectionVersionRepository) {
+        this.collectionVersionRepository = collectionVersionRepository;
+    }
+
+    /**
+     * Get the entity tag of the collections. It must be computed before reading the collections: a change committed in
+     * between is then in the response but not in the tag, so the next request is answered in full, never the opposite.
+     * @return the quoted, strong entity tag.
+     */
+    public Mono<String> currentETag() {
+        return collectionVersionRepository.findVersion().map(version -> "\"" + version + "\"");
+    }
+}
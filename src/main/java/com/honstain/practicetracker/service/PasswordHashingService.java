@@ -0,0 +1,154 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service class hashing and matching the passwords on a dedicated scheduler.
+ * <p>
+ * BCrypt is deliberately slow, so the hashes run on {@code application.password-hashing.threads} threads of their own
+ * rather than on {@link Schedulers#boundedElastic()}, which a burst of logins or registrations would starve. At most
+ * {@code application.password-hashing.queue-capacity} hashes wait for a thread, beyond that the hash fails right away
+ * with a {@link PasswordHashingUnavailableException}, answered with {@code 503 (Service Unavailable)}.
+ * <p>
+ * The queue depth and the wait for a thread are exported with the {@code executor.*} meters tagged
+ * {@code name=password.hashing}, the duration of the hashes with the {@code password.hashing} timer and the rejected
+ * hashes with the {@code password.hashing.rejected} counter.
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    private static final String NAME = "password.hashing";
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Scheduler scheduler;
+
+    public PasswordHashingService(
+        PasswordEncoder passwordEncoder,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        Counter rejected = Counter
+            .builder(NAME + ".rejected")
+            .description("Password hashes rejected because every thread was busy and the queue was full")
+            .register(meterRegistry);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-"),
+            (task, pool) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("The password hashing queue is full");
+            }
+        );
+        this.scheduler = Schedulers.fromExecutorService(ExecutorServiceMetrics.monitor(meterRegistry, executor, NAME), NAME);
+        this.passwordEncoder =
+            new TimedPasswordEncoder(passwordEncoder, hashTimer(meterRegistry, "encode"), hashTimer(meterRegistry, "matches"));
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(NAME).description("Duration of the password hashes").tag("operation", operation).register(meterRegistry);
+    }
+
+    /**
+     * @return the scheduler of the password hashes, for the components which hash on their own like the
+     * {@code ReactiveAuthenticationManager}. A hash rejected by it fails with a {@link RejectedExecutionException}.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return the password encoder, timed by the {@code password.hashing} timer, to use on {@link #getScheduler()}.
+     */
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    /**
+     * @param rawPassword the password to hash.
+     * @return the hashed password, or a {@link PasswordHashingUnavailableException} if too many passwords are being hashed.
+     */
+    public Mono<String> encode(CharSequence rawPassword) {
+        return onScheduler(Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * @param rawPassword the password to check.
+     * @param encodedPassword the hashed password.
+     * @return whether the password matches the hash, or a {@link PasswordHashingUnavailableException} if too many passwords
+     * are being hashed.
+     */
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return onScheduler(Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    private <T> Mono<T> onScheduler(Mono<T> hash) {
+        return hash.subscribeOn(scheduler).onErrorMap(RejectedExecutionException.class, e -> new PasswordHashingUnavailableException());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private static final class TimedPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+
+        private final Timer encodeTimer;
+
+        private final Timer matchesTimer;
+
+        private TimedPasswordEncoder(PasswordEncoder delegate, Timer encodeTimer, Timer matchesTimer) {
+            this.delegate = delegate;
+            this.encodeTimer = encodeTimer;
+            this.matchesTimer = matchesTimer;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            long start = System.nanoTime();
+            try {
+                return delegate.encode(rawPassword);
+            } finally {
+                encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            long start = System.nanoTime();
+            try {
+                return delegate.matches(rawPassword, encodedPassword);
+            } finally {
+                matchesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
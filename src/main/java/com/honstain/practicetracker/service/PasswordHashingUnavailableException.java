@@ -0,0 +1,10 @@
+package com.honstain.practicetracker.service;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingUnavailableException() {
+        super("Too many passwords are being hashed, try again later");
+    }
+}
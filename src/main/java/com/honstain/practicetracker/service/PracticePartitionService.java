@@ -0,0 +1,69 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.repository.PracticePartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class creating the monthly partitions of the practices ahead of time.
+ * <p>
+ * The practice table is partitioned by month of start, so that the queries of a window of dates only read the
+ * partitions of that window. A practice of a month without partition is stored in the default partition, where it
+ * is found by every query, so the partitions are created {@code application.partitions.months-ahead} months ahead, on
+ * startup and on the schedule {@code application.partitions.cron}. The same run creates the partitions of the months
+ * found in the default partition, and moves their practices there.
+ */
+@Service
+public class PracticePartitionService {
+
+    private final Logger log = LoggerFactory.getLogger(PracticePartitionService.class);
+
+    private final PracticePartitionRepository practicePartitionRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public PracticePartitionService(PracticePartitionRepository practicePartitionRepository, ApplicationProperties applicationProperties) {
+        this.practicePartitionRepository = practicePartitionRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        scheduledCreatePartitions();
+    }
+
+    /**
+     * Creates the missing partitions, on the schedule {@code application.partitions.cron}.
+     */
+    @Scheduled(cron = "${application.partitions.cron:0 0 3 * * *}")
+    public void scheduledCreatePartitions() {
+        createPartitions()
+            .onErrorResume(e -> {
+                log.error("Failed to create the practice partitions, the practices of their months stay in the default partition", e);
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    /**
+     * Creates the partitions of the current month and of the next {@code application.partitions.months-ahead} months,
+     * and of the months of the practices in the default partition, which do not exist yet.
+     * @return the number of partitions created.
+     */
+    public Mono<Integer> createPartitions() {
+        int monthsAhead = applicationProperties.getPartitions().getMonthsAhead();
+        return practicePartitionRepository
+            .createPartitions(monthsAhead)
+            .doOnNext(created -> {
+                if (created > 0) {
+                    log.info("Created {} practice partitions, up to {} months ahead", created, monthsAhead);
+                }
+            });
+    }
+}
@@ -0,0 +1,322 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.service.dto.DueProblemDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class scheduling the problems to practice again, from the PASS/FAIL history of their practices.
+ * <p>
+ * A problem is due one day after a failed practice, and {@code 2^n} days after the n-th consecutive pass, up to
+ * {@value #MAX_INTERVAL_DAYS} days. The schedules are held in memory, ordered by due time, so the due problems are
+ * found without reading the practices. They are rebuilt from the database in the background at startup, the due
+ * problems are computed from the practices until the rebuild is installed. They are then updated once the practice
+ * writes commit: a practice newer than the history of its problem is applied directly, any other change reloads the
+ * history of the problem.
+ * <p>
+ * Every change of the schedule of a problem increments its version. A reload takes the version before reading the
+ * history, and reads it again if the schedule changed meanwhile, so that it never overwrites a newer practice applied
+ * while the history was read.
+ */
+@Service
+public class PracticeScheduleService implements PracticeWriteListener {
+
+    static final Duration FAIL_INTERVAL = Duration.ofDays(1);
+    static final int MAX_INTERVAL_DAYS = 128;
+
+    private static final Comparator<Schedule> DUE_ORDER = Comparator
+        .comparing((Schedule schedule) -> schedule.dueAt)
+        .thenComparing(schedule -> schedule.problemName);
+
+    private static final Comparator<Practice> HISTORY_ORDER = Comparator
+        .comparing(PracticeScheduleService::practicedAt)
+        .thenComparing(Practice::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Logger log = LoggerFactory.getLogger(PracticeScheduleService.class);
+
+    private final PracticeRepository practiceRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    // guarded by this
+    private final Map<String, Schedule> byProblem = new HashMap<>();
+    private final NavigableSet<Schedule> byDue = new TreeSet<>(DUE_ORDER);
+    private final Map<String, Long> versions = new HashMap<>();
+    // the problems changed while a rebuild reads the practices, reloaded once the rebuild is installed
+    private Set<String> changedDuringRebuild;
+
+    private volatile boolean rebuilt;
+
+    public PracticeScheduleService(PracticeRepository practiceRepository, ApplicationProperties applicationProperties) {
+        this.practiceRepository = practiceRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Get the problems due at the given time, the most overdue first. Takes {@code O(log n + limit)} once the schedules
+     * are rebuilt, reads every practice before.
+     * @param now the time.
+     * @param limit the maximum number of problems.
+     * @return the due problems.
+     */
+    public Mono<List<DueProblemDTO>> findDue(Instant now, int limit) {
+        if (!rebuilt) {
+            return findDueFromPractices(now, limit);
+        }
+        List<DueProblemDTO> due = new ArrayList<>(Math.min(limit, 64));
+        synchronized (this) {
+            Iterator<Schedule> schedules = byDue.iterator();
+            while (due.size() < limit && schedules.hasNext()) {
+                Schedule schedule = schedules.next();
+                if (schedule.dueAt.isAfter(now)) {
+                    break;
+                }
+                due.add(schedule.toDto());
+            }
+        }
+        return Mono.just(due);
+    }
+
+    private Mono<List<DueProblemDTO>> findDueFromPractices(Instant now, int limit) {
+        return practiceRepository
+            .streamOrderedByProblemName(applicationProperties.getExport().getFetchSize())
+            .bufferUntilChanged(Practice::getProblemName)
+            .mapNotNull(PracticeScheduleService::schedule)
+            .filter(schedule -> !schedule.dueAt.isAfter(now))
+            .collectSortedList(DUE_ORDER)
+            .map(schedules -> schedules.stream().limit(limit).map(Schedule::toDto).collect(Collectors.toList()));
+    }
+
+    @Override
+    public Mono<Void> practicesCreated(Collection<Practice> practices) {
+        return afterCommit(() -> {
+            List<Practice> ordered = inHistoryOrder(practices);
+            Set<String> reloads = new HashSet<>();
+            synchronized (this) {
+                for (Practice practice : ordered) {
+                    Schedule current = byProblem.get(practice.getProblemName());
+                    if (current == null) {
+                        put(Schedule.first(practice));
+                    } else if (!practicedAt(practice).isBefore(current.lastPracticed)) {
+                        put(current.next(practice));
+                    } else {
+                        // an older practice changes the streak which followed it
+                        reloads.add(practice.getProblemName());
+                    }
+                }
+            }
+            return reload(reloads);
+        });
+    }
+
+    @Override
+    public Mono<Void> practiceUpdated(Practice previous, Practice updated) {
+        Set<String> problems = new HashSet<>();
+        problems.add(previous.getProblemName());
+        problems.add(updated.getProblemName());
+        return afterCommit(() -> reload(problems));
+    }
+
+    @Override
+    public Mono<Void> practiceDeleted(Practice previous) {
+        return afterCommit(() -> reload(Set.of(previous.getProblemName())));
+    }
+
+    // does not hold up the startup, the due problems are computed from the practices until the rebuild is installed
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild()
+            .subscribe(
+                null,
+                e -> log.error("Failed to build the practice schedules, until the next rebuild they are computed from the practices", e)
+            );
+    }
+
+    /**
+     * Rebuilds every schedule from the practices, streamed by problem so that only one history is held at a time.
+     * @return completion.
+     */
+    public Mono<Void> rebuild() {
+        return Mono
+            .fromRunnable(() -> {
+                synchronized (this) {
+                    changedDuringRebuild = new HashSet<>();
+                }
+            })
+            .thenMany(practiceRepository.streamOrderedByProblemName(applicationProperties.getExport().getFetchSize()))
+            .bufferUntilChanged(Practice::getProblemName)
+            .flatMap(history -> Mono.justOrEmpty(schedule(history)))
+            .collectList()
+            .flatMap(schedules -> {
+                Set<String> changed;
+                synchronized (this) {
+                    changed = changedDuringRebuild;
+                    changedDuringRebuild = null;
+                    // removed one by one so that the reloads running meanwhile see the change of version
+                    new ArrayList<>(byProblem.keySet()).forEach(this::remove);
+                    schedules.forEach(this::put);
+                    rebuilt = true;
+                }
+                log.info("Rebuilt the schedules of {} problems", schedules.size());
+                return reload(changed);
+            });
+    }
+
+    private Mono<Void> reload(Set<String> problems) {
+        return Flux.fromIterable(problems).filter(Objects::nonNull).concatMap(this::reload).then();
+    }
+
+    private Mono<Void> reload(String problem) {
+        return Mono.defer(() -> {
+            long version = versionOf(problem);
+            return practiceRepository
+                .findAllByProblemName(problem)
+                .collectList()
+                .flatMap(history -> {
+                    Schedule schedule = schedule(history);
+                    synchronized (this) {
+                        if (versionOf(problem) == version) {
+                            remove(problem);
+                            if (schedule != null) {
+                                put(schedule);
+                            }
+                            return Mono.<Void>empty();
+                        }
+                    }
+                    // a newer practice was applied while the history was read, it may be missing from the history
+                    log.debug("Reloading the schedule of {} again, it changed while its history was read", problem);
+                    return reload(problem);
+                });
+        });
+    }
+
+    private synchronized long versionOf(String problem) {
+        return versions.getOrDefault(problem, 0L);
+    }
+
+    // the schedules are derived from committed practices only, a rolled back write leaves them unchanged
+    private Mono<Void> afterCommit(Supplier<Mono<Void>> update) {
+        return AfterCommit.run(() ->
+            update
+                .get()
+                .onErrorResume(e -> {
+                    log.warn("Failed to update the practice schedules", e);
+                    return Mono.empty();
+                })
+        );
+    }
+
+    private void put(Schedule schedule) {
+        remove(schedule.problemName);
+        byProblem.put(schedule.problemName, schedule);
+        byDue.add(schedule);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(schedule.problemName);
+        }
+    }
+
+    private void remove(String problem) {
+        versions.merge(problem, 1L, Long::sum);
+        Schedule previous = byProblem.remove(problem);
+        if (previous != null) {
+            byDue.remove(previous);
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(problem);
+        }
+    }
+
+    private static Schedule schedule(List<Practice> history) {
+        Schedule schedule = null;
+        for (Practice practice : inHistoryOrder(history)) {
+            schedule = schedule == null ? Schedule.first(practice) : schedule.next(practice);
+        }
+        return schedule;
+    }
+
+    private static List<Practice> inHistoryOrder(Collection<Practice> practices) {
+        return practices.stream().filter(PracticeScheduleService::isScheduled).sorted(HISTORY_ORDER).collect(Collectors.toList());
+    }
+
+    private static boolean isScheduled(Practice practice) {
+        return practice.getProblemName() != null && practice.getResult() != null && practicedAt(practice) != null;
+    }
+
+    private static Instant practicedAt(Practice practice) {
+        ZonedDateTime practicedAt = practice.getEnd() != null ? practice.getEnd() : practice.getStart();
+        return practicedAt != null ? practicedAt.toInstant() : null;
+    }
+
+    private static final class Schedule {
+
+        private final String problemName;
+        private final String problemLink;
+        private final PracticeResult lastResult;
+        private final Instant lastPracticed;
+        private final int streak;
+        private final Instant dueAt;
+
+        private Schedule(String problemName, String problemLink, PracticeResult lastResult, Instant lastPracticed, int streak) {
+            this.problemName = problemName;
+            this.problemLink = problemLink;
+            this.lastResult = lastResult;
+            this.lastPracticed = lastPracticed;
+            this.streak = streak;
+            this.dueAt = lastPracticed.plus(interval(streak));
+        }
+
+        private static Duration interval(int streak) {
+            return streak == 0 ? FAIL_INTERVAL : Duration.ofDays(Math.min(1L << Math.min(streak, 30), MAX_INTERVAL_DAYS));
+        }
+
+        static Schedule first(Practice practice) {
+            return new Schedule(
+                practice.getProblemName(),
+                practice.getProblemLink(),
+                practice.getResult(),
+                practicedAt(practice),
+                practice.getResult() == PracticeResult.PASS ? 1 : 0
+            );
+        }
+
+        Schedule next(Practice practice) {
+            return new Schedule(
+                problemName,
+                practice.getProblemLink(),
+                practice.getResult(),
+                practicedAt(practice),
+                practice.getResult() == PracticeResult.PASS ? streak + 1 : 0
+            );
+        }
+
+        DueProblemDTO toDto() {
+            return new DueProblemDTO(problemName, problemLink, lastResult, lastPracticed, streak, dueAt);
+        }
+    }
+}
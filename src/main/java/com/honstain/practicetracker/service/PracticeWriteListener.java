@@ -0,0 +1,34 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.domain.Practice;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maintains state derived from the practices, notified of every practice write within the transaction of the write.
+ */
+public interface PracticeWriteListener {
+    /**
+     * @param practices the created practices.
+     * @return completion.
+     */
+    Mono<Void> practicesCreated(Collection<Practice> practices);
+
+    /**
+     * @param previous the practice as it was before the update.
+     * @param updated the practice as it is after the update.
+     * @return completion.
+     */
+    Mono<Void> practiceUpdated(Practice previous, Practice updated);
+
+    /**
+     * @param previous the practice as it was before the delete.
+     * @return completion.
+     */
+    Mono<Void> practiceDeleted(Practice previous);
+
+    default Mono<Void> practiceCreated(Practice practice) {
+        return practicesCreated(List.of(practice));
+    }
+}
@@ -0,0 +1,129 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.service.ProblemNameTrie.Match;
+import com.honstain.practicetracker.service.dto.ProblemNameMatchDTO;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class for the typeahead search of the problem names.
+ * <p>
+ * The names starting with the query are matched from an in-memory {@link ProblemNameTrie}, kept in sync once the
+ * practice writes commit. When they are not enough, the names containing the query are added from the trigram index
+ * of the database. Without the trie, enabled by {@code application.search.trie-enabled}, every search reads the index.
+ */
+@Service
+public class ProblemNameSearchService implements PracticeWriteListener {
+
+    public static final int MAX_LIMIT = ProblemNameTrie.MAX_RESULTS;
+
+    // the trigram index only serves queries of three characters or more
+    private static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+
+    private final Logger log = LoggerFactory.getLogger(ProblemNameSearchService.class);
+
+    private final PracticeRepository practiceRepository;
+
+    private final boolean trieEnabled;
+
+    private final ProblemNameTrie trie = new ProblemNameTrie();
+
+    public ProblemNameSearchService(PracticeRepository practiceRepository, ApplicationProperties applicationProperties) {
+        this.practiceRepository = practiceRepository;
+        this.trieEnabled = applicationProperties.getSearch().isTrieEnabled();
+    }
+
+    /**
+     * Search the problem names, the names starting with the query first, each group ranked by frequency.
+     * @param query the text to find in the names.
+     * @param limit the maximum number of names, at most {@link #MAX_LIMIT}.
+     * @return the matching names.
+     */
+    public Mono<List<ProblemNameMatchDTO>> search(String query, int limit) {
+        Map<String, Long> matches = new LinkedHashMap<>();
+        if (trieEnabled) {
+            for (Match match : trie.search(query, limit)) {
+                matches.put(match.name, match.frequency);
+            }
+            if (matches.size() >= limit || query.length() < MIN_SUBSTRING_QUERY_LENGTH) {
+                return Mono.just(toDtos(matches));
+            }
+        }
+        // the names found by the trie are also found by the index, so fetch enough rows to fill the limit anyway
+        return practiceRepository
+            .searchProblemNames(query, limit + matches.size())
+            .doOnNext(match -> matches.putIfAbsent(match.getT1(), match.getT2()))
+            .then(Mono.fromSupplier(() -> toDtos(matches).stream().limit(limit).collect(Collectors.toList())));
+    }
+
+    @Override
+    public Mono<Void> practicesCreated(Collection<Practice> practices) {
+        return afterCommit(() -> practices.forEach(practice -> trie.add(practice.getProblemName(), 1)));
+    }
+
+    @Override
+    public Mono<Void> practiceUpdated(Practice previous, Practice updated) {
+        return afterCommit(() -> {
+            trie.add(previous.getProblemName(), -1);
+            trie.add(updated.getProblemName(), 1);
+        });
+    }
+
+    @Override
+    public Mono<Void> practiceDeleted(Practice previous) {
+        return afterCommit(() -> trie.add(previous.getProblemName(), -1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (trieEnabled) {
+            rebuild()
+                .onErrorResume(e -> {
+                    log.error("Failed to build the problem name trie, until the next rebuild only new practices are found", e);
+                    return Mono.empty();
+                })
+                .block();
+        }
+    }
+
+    /**
+     * Rebuilds the trie from the distinct problem names of the practices. The frequencies only rank the names, so the
+     * writes committed while the names are counted are not tracked, they may be counted twice until the next rebuild.
+     * @return completion.
+     */
+    public Mono<Void> rebuild() {
+        return practiceRepository
+            .countByProblemName()
+            .collectList()
+            .doOnNext(names -> {
+                trie.clear();
+                names.forEach(name -> trie.add(name.getT1(), name.getT2()));
+                log.info("Rebuilt the problem name trie with {} names", names.size());
+            })
+            .then();
+    }
+
+    private Mono<Void> afterCommit(Runnable update) {
+        return trieEnabled ? AfterCommit.run(() -> Mono.fromRunnable(update)) : Mono.empty();
+    }
+
+    private static List<ProblemNameMatchDTO> toDtos(Map<String, Long> matches) {
+        return matches
+            .entrySet()
+            .stream()
+            .map(match -> new ProblemNameMatchDTO(match.getKey(), match.getValue()))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.honstain.practicetracker.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prefix trie of the distinct problem names with their frequency, the number of practices of the problem, matched
+ * case-insensitively.
+ * <p>
+ * Every node caches the {@value #MAX_RESULTS} most frequent names below it. A change only invalidates the caches on the
+ * path of the changed name, which are recomputed by the next lookup through them, so a lookup usually walks the prefix
+ * and nothing else.
+ */
+final class ProblemNameTrie {
+
+    static final int MAX_RESULTS = 20;
+
+    private static final Comparator<Match> RANKING = Comparator
+        .comparingLong((Match match) -> match.frequency)
+        .reversed()
+        .thenComparing(match -> match.name);
+
+    private final Node root = new Node(null, '\0');
+
+    /**
+     * Adds to the frequency of a name, the name is removed once its frequency drops to zero.
+     * @param name the name.
+     * @param delta the change of its frequency.
+     */
+    synchronized void add(String name, long delta) {
+        Node node = root;
+        for (char c : key(name).toCharArray()) {
+            Node parent = node;
+            node = node.children.computeIfAbsent(c, child -> new Node(parent, child));
+        }
+        if (node.names == null) {
+            node.names = new HashMap<>();
+        }
+        long frequency = node.names.merge(name, delta, Long::sum);
+        if (frequency <= 0) {
+            node.names.remove(name);
+        }
+        for (Node invalid = node; invalid != null; invalid = invalid.parent) {
+            invalid.top = null;
+        }
+        prune(node);
+    }
+
+    /**
+     * @param prefix the prefix of the names, in any case.
+     * @param limit the maximum number of names, at most {@value #MAX_RESULTS}.
+     * @return the most frequent names starting with the prefix, the most frequent first.
+     */
+    synchronized List<Match> search(String prefix, int limit) {
+        Node node = root;
+        for (char c : key(prefix).toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                return List.of();
+            }
+        }
+        List<Match> top = top(node);
+        return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+    }
+
+    synchronized void clear() {
+        root.children.clear();
+        root.names = null;
+        root.top = null;
+    }
+
+    private static List<Match> top(Node node) {
+        if (node.top == null) {
+            List<Match> candidates = new ArrayList<>();
+            if (node.names != null) {
+                node.names.forEach((name, frequency) -> candidates.add(new Match(name, frequency)));
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(top(child));
+            }
+            candidates.sort(RANKING);
+            node.top = candidates.size() > MAX_RESULTS ? new ArrayList<>(candidates.subList(0, MAX_RESULTS)) : candidates;
+        }
+        return node.top;
+    }
+
+    // removes the nodes left without any name below them
+    private static void prune(Node node) {
+        while (node.parent != null && node.children.isEmpty() && (node.names == null || node.names.isEmpty())) {
+            node.parent.children.remove(node.key);
+            node = node.parent;
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static final class Match {
+
+        final String name;
+        final long frequency;
+
+        Match(String name, long frequency) {
+            this.name = name;
+            this.frequency = frequency;
+        }
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+        private final char key;
+        private final Map<Character, Node> children = new HashMap<>();
+        // the names ending at this node, in their original case, with their frequency
+        private Map<String, Long> names;
+        // the most frequent names below this node, or null once a change below it invalidated them
+        private List<Match> top;
+
+        private Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+    }
+}
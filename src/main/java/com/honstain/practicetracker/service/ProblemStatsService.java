@@ -0,0 +1,133 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.ProblemStats;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.ProblemStatsRepository;
+import com.honstain.practicetracker.service.dto.ProblemStatsDTO;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class maintaining the per problem statistics of the practices.
+ * <p>
+ * Every practice write adds its delta to the {@link ProblemStats} rollups, within the transaction of the write, so that
+ * the statistics are read without aggregating the practices. The practices which existed before the rollups are
+ * backfilled by the changelog, {@link #rebuild()} recomputes the rollups from the practices to repair them.
+ */
+@Service
+@Transactional
+public class ProblemStatsService implements PracticeWriteListener {
+
+    public static final List<String> DIMENSIONS = Arrays.asList(ProblemStats.BY_PROBLEM_NAME, ProblemStats.BY_PROBLEM_LINK);
+
+    private final Logger log = LoggerFactory.getLogger(ProblemStatsService.class);
+
+    private final ProblemStatsRepository problemStatsRepository;
+
+    private final PracticeRepository practiceRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionalOperator transactionalOperator;
+
+    public ProblemStatsService(
+        ProblemStatsRepository problemStatsRepository,
+        PracticeRepository practiceRepository,
+        ApplicationProperties applicationProperties,
+        ReactiveTransactionManager transactionManager
+    ) {
+        this.problemStatsRepository = problemStatsRepository;
+        this.practiceRepository = practiceRepository;
+        this.applicationProperties = applicationProperties;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * Get the statistics of every problem.
+     * @param dimension {@link ProblemStats#BY_PROBLEM_NAME} or {@link ProblemStats#BY_PROBLEM_LINK}.
+     * @return the statistics, ordered by problem.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProblemStatsDTO> findAll(String dimension) {
+        return problemStatsRepository.findAllByDimension(dimension).map(ProblemStatsDTO::new);
+    }
+
+    @Override
+    public Mono<Void> practicesCreated(Collection<Practice> practices) {
+        Map<String, ProblemStats> deltas = new HashMap<>();
+        practices.forEach(practice -> add(deltas, practice, 1));
+        return apply(deltas);
+    }
+
+    @Override
+    public Mono<Void> practiceUpdated(Practice previous, Practice updated) {
+        Map<String, ProblemStats> deltas = new HashMap<>();
+        add(deltas, previous, -1);
+        add(deltas, updated, 1);
+        return apply(deltas);
+    }
+
+    @Override
+    public Mono<Void> practiceDeleted(Practice previous) {
+        Map<String, ProblemStats> deltas = new HashMap<>();
+        add(deltas, previous, -1);
+        return apply(deltas);
+    }
+
+    /**
+     * Rebuilds the statistics from the practices, on the schedule {@code application.stats.rebuild-cron}.
+     */
+    @Scheduled(cron = "${application.stats.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuild().block();
+    }
+
+    /**
+     * Recomputes every rollup from the practices, in a single transaction. The practice writes which run meanwhile wait
+     * on the rollup table until the rebuild commits, then add their delta to the rebuilt rollups.
+     * @return the number of rollups.
+     */
+    public Mono<Integer> rebuild() {
+        Mono<Integer> rebuild = problemStatsRepository
+            .lockAndDeleteAll()
+            .thenMany(practiceRepository.streamByCriteria(null, applicationProperties.getExport().getFetchSize()))
+            .reduceWith(HashMap<String, ProblemStats>::new, (rollups, practice) -> add(rollups, practice, 1))
+            .flatMap(rollups -> problemStatsRepository.addAll(rollups.values()).thenReturn(rollups.size()))
+            .doOnNext(size -> log.info("Rebuilt {} problem statistics", size));
+        // the scheduled rebuild calls this method directly, not through the transactional proxy
+        return transactionalOperator.transactional(rebuild);
+    }
+
+    private Mono<Void> apply(Map<String, ProblemStats> deltas) {
+        return problemStatsRepository.addAll(
+            deltas.values().stream().filter(delta -> !delta.isEmpty()).collect(Collectors.toList())
+        );
+    }
+
+    private static Map<String, ProblemStats> add(Map<String, ProblemStats> deltas, Practice practice, int sign) {
+        add(deltas, ProblemStats.BY_PROBLEM_NAME, practice.getProblemName(), practice, sign);
+        add(deltas, ProblemStats.BY_PROBLEM_LINK, practice.getProblemLink(), practice, sign);
+        return deltas;
+    }
+
+    private static void add(Map<String, ProblemStats> deltas, String dimension, String problem, Practice practice, int sign) {
+        if (problem != null) {
+            deltas.computeIfAbsent(dimension + '\n' + problem, key -> new ProblemStats(dimension, problem)).add(practice, sign);
+        }
+    }
+}
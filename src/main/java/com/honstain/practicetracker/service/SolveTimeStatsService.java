@@ -0,0 +1,189 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.ProblemSolveTimes;
+import com.honstain.practicetracker.domain.ProblemStats;
+import com.honstain.practicetracker.domain.SolveTimeHistogram;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.ProblemRepository;
+import com.honstain.practicetracker.repository.ProblemSolveTimesRepository;
+import com.honstain.practicetracker.service.dto.SolveTimesDTO;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+/**
+ * Service class maintaining the solve time histograms of the problems.
+ * <p>
+ * Every practice write records its solve time in the {@link ProblemSolveTimes} histogram of its problem and start day,
+ * within the transaction of the write, so that the percentiles of any window of days are read by merging a histogram per
+ * day instead of sorting the practices. A write adds its delta with a single upsert, like {@link ProblemStatsService}.
+ * The practices which existed before the histograms are backfilled by the changelog, {@link #rebuild()} recomputes the
+ * histograms from the practices to repair them.
+ */
+@Service
+@Transactional
+public class SolveTimeStatsService implements PracticeWriteListener {
+
+    private final Logger log = LoggerFactory.getLogger(SolveTimeStatsService.class);
+
+    private final ProblemSolveTimesRepository problemSolveTimesRepository;
+
+    private final ProblemRepository problemRepository;
+
+    private final PracticeRepository practiceRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionalOperator transactionalOperator;
+
+    public SolveTimeStatsService(
+        ProblemSolveTimesRepository problemSolveTimesRepository,
+        ProblemRepository problemRepository,
+        PracticeRepository practiceRepository,
+        ApplicationProperties applicationProperties,
+        ReactiveTransactionManager transactionManager
+    ) {
+        this.problemSolveTimesRepository = problemSolveTimesRepository;
+        this.problemRepository = problemRepository;
+        this.practiceRepository = practiceRepository;
+        this.applicationProperties = applicationProperties;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * Get the solve times of the problems over a window of days, merging the histograms of its days.
+     * @param problemId the problem, or null for every problem.
+     * @param from the first day (UTC) of the window, or null for no lower bound.
+     * @param to the last day (UTC) of the window, or null for no upper bound.
+     * @return the solve times of each problem with practices in the window, ordered by problem.
+     */
+    @Transactional(readOnly = true)
+    public Flux<SolveTimesDTO> findAll(Long problemId, LocalDate from, LocalDate to) {
+        return problemSolveTimesRepository
+            .findAll(problemId, from, to)
+            .bufferUntilChanged(ProblemSolveTimes::getProblemId)
+            .map(days -> {
+                SolveTimeHistogram merged = new SolveTimeHistogram();
+                days.forEach(day -> merged.add(day.getSolveTimes()));
+                return new SolveTimesDTO(days.get(0).getProblemId(), merged);
+            });
+    }
+
+    /**
+     * Get the solve times of the practices of a session, the few practices of a session are read directly.
+     * @param practiceSessionId the id of the session.
+     * @return the solve times.
+     */
+    @Transactional(readOnly = true)
+    public Mono<SolveTimesDTO> findByPracticeSession(Long practiceSessionId) {
+        return practiceRepository
+            .findByPracticeSession(practiceSessionId)
+            .mapNotNull(ProblemStats::solveSeconds)
+            .reduceWith(
+                SolveTimeHistogram::new,
+                (histogram, seconds) -> {
+                    histogram.record(seconds, 1);
+                    return histogram;
+                }
+            )
+            .map(histogram -> new SolveTimesDTO(null, histogram));
+    }
+
+    @Override
+    public Mono<Void> practicesCreated(Collection<Practice> practices) {
+        // the practices saved by Spring Data do not carry the problem resolved by the database, it is looked up by link
+        List<String> links = practices
+            .stream()
+            .filter(practice -> practice.getProblemId() == null && practice.getProblemLink() != null)
+            .map(Practice::getProblemLink)
+            .distinct()
+            .collect(Collectors.toList());
+        return Flux
+            .fromIterable(links)
+            .concatMap(link -> problemRepository.findOneByLink(link).map(problem -> Tuples.of(link, problem.getId())))
+            .collectMap(tuple -> tuple.getT1(), tuple -> tuple.getT2())
+            .flatMap(problemIds -> {
+                Map<String, ProblemSolveTimes> deltas = new HashMap<>();
+                for (Practice practice : practices) {
+                    Long problemId = practice.getProblemId() != null ? practice.getProblemId() : problemIds.get(practice.getProblemLink());
+                    add(deltas, problemId, practice, 1);
+                }
+                return apply(deltas);
+            });
+    }
+
+    @Override
+    public Mono<Void> practiceUpdated(Practice previous, Practice updated) {
+        Map<String, ProblemSolveTimes> deltas = new HashMap<>();
+        add(deltas, previous.getProblemId(), previous, -1);
+        add(deltas, updated.getProblemId(), updated, 1);
+        return apply(deltas);
+    }
+
+    @Override
+    public Mono<Void> practiceDeleted(Practice previous) {
+        Map<String, ProblemSolveTimes> deltas = new HashMap<>();
+        add(deltas, previous.getProblemId(), previous, -1);
+        return apply(deltas);
+    }
+
+    /**
+     * Rebuilds the histograms from the practices, on the schedule {@code application.stats.rebuild-cron}.
+     */
+    @Scheduled(cron = "${application.stats.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuild().block();
+    }
+
+    /**
+     * Recomputes every histogram from the practices, in a single transaction. The practice writes which run meanwhile wait
+     * on the histogram table until the rebuild commits, then record their solve time in the rebuilt histograms.
+     * @return the number of histograms, per problem and day.
+     */
+    public Mono<Integer> rebuild() {
+        Mono<Integer> rebuild = problemSolveTimesRepository
+            .lockAndDeleteAll()
+            .thenMany(practiceRepository.streamByCriteria(null, applicationProperties.getExport().getFetchSize()))
+            .reduceWith(
+                HashMap<String, ProblemSolveTimes>::new,
+                (histograms, practice) -> add(histograms, practice.getProblemId(), practice, 1)
+            )
+            .flatMap(histograms -> problemSolveTimesRepository.addAll(histograms.values()).thenReturn(histograms.size()))
+            .doOnNext(size -> log.info("Rebuilt {} solve time histograms", size));
+        // the scheduled rebuild calls this method directly, not through the transactional proxy
+        return transactionalOperator.transactional(rebuild);
+    }
+
+    private Mono<Void> apply(Map<String, ProblemSolveTimes> deltas) {
+        return problemSolveTimesRepository.addAll(
+            deltas.values().stream().filter(delta -> !delta.getSolveTimes().isEmpty()).collect(Collectors.toList())
+        );
+    }
+
+    private static Map<String, ProblemSolveTimes> add(Map<String, ProblemSolveTimes> deltas, Long problemId, Practice practice, int sign) {
+        Long seconds = ProblemStats.solveSeconds(practice);
+        if (problemId != null && seconds != null) {
+            LocalDate day = ProblemSolveTimes.dayOf(practice);
+            deltas
+                .computeIfAbsent(problemId + "/" + day, key -> new ProblemSolveTimes(problemId, day))
+                .getSolveTimes()
+                .record(seconds, sign);
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,195 @@
+package com.honstain.practicetracker.service;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.repository.ChangeTrackingRepository;
+import com.honstain.practicetracker.repository.RevokedTokenRepository;
+import com.honstain.practicetracker.security.jwt.RevokedTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class revoking the tokens before they expire.
+ * <p>
+ * The revocations are stored in the database, and mirrored in memory by every instance so that the {@code JWTFilter}
+ * checks them without querying: a Bloom filter answers for almost every token, which is not revoked, and the exact set
+ * of the revoked token ids confirms its positives. The new revocations are read incrementally, by change sequence, on
+ * startup and every {@code application.jwt.revocation-refresh-interval}. A token revoked by an instance is rejected by it
+ * right away, and by the other instances after their next refresh.
+ * <p>
+ * The checks, the positives of the Bloom filter and its false positives are exported with the
+ * {@code jwt.revocation.checks}, {@code jwt.revocation.bloom-positives} and {@code jwt.revocation.false-positives}
+ * counters, next to the {@code jwt.revocation.expected-false-positive-rate} of the current filter.
+ */
+@Service
+public class TokenRevocationService implements RevokedTokens {
+
+    private static final String METER_PREFIX = "jwt.revocation.";
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final ChangeTrackingRepository changeTrackingRepository;
+
+    private final int expectedRevocations;
+
+    private final double falsePositiveProbability;
+
+    // the id and the expiry of each revoked token
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    // the sequence from which the next refresh reads, only accessed by the synchronized refresh
+    private long nextSequence = 0;
+
+    private final Counter checks;
+
+    private final Counter bloomPositives;
+
+    private final Counter falsePositives;
+
+    public TokenRevocationService(
+        RevokedTokenRepository revokedTokenRepository,
+        ChangeTrackingRepository changeTrackingRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.changeTrackingRepository = changeTrackingRepository;
+        this.expectedRevocations = applicationProperties.getJwt().getExpectedRevocations();
+        this.falsePositiveProbability = applicationProperties.getJwt().getRevocationFalsePositiveProbability();
+        this.bloomFilter = new BloomFilter(expectedRevocations, falsePositiveProbability);
+        this.checks = Counter.builder(METER_PREFIX + "checks").description("Tokens checked for revocation").register(meterRegistry);
+        this.bloomPositives =
+            Counter
+                .builder(METER_PREFIX + "bloom-positives")
+                .description("Tokens checked which the Bloom filter of the revocations might contain")
+                .register(meterRegistry);
+        this.falsePositives =
+            Counter
+                .builder(METER_PREFIX + "false-positives")
+                .description("Tokens checked which the Bloom filter of the revocations might contain, but which are not revoked")
+                .register(meterRegistry);
+        Gauge
+            .builder(METER_PREFIX + "expected-false-positive-rate", this, service -> service.bloomFilter.expectedFalsePositiveProbability())
+            .description("False positive probability of the Bloom filter of the revocations, for its current share of bits set")
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + "size", revoked, Map::size).description("Revoked tokens not expired yet").register(meterRegistry);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        checks.increment();
+        if (!bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        bloomPositives.increment();
+        if (revoked.containsKey(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revoke a token until it expires.
+     * @param tokenId the id of the token.
+     * @param expiresAt when the token expires.
+     * @return completes once the token is revoked, in the database and by this instance.
+     */
+    public Mono<Void> revoke(String tokenId, Instant expiresAt) {
+        log.debug("Request to revoke the token {}", tokenId);
+        return revokedTokenRepository.save(tokenId, expiresAt).then(Mono.fromRunnable(() -> add(tokenId, expiresAt)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        scheduledRefresh();
+    }
+
+    /**
+     * Reads the new revocations, every {@code application.jwt.revocation-refresh-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.jwt.revocation-refresh-interval:PT5S}")
+    public void scheduledRefresh() {
+        refresh()
+            .onErrorResume(e -> {
+                log.error("Failed to refresh the revoked tokens, the revocations of the other instances are not applied yet", e);
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    /**
+     * Reads the revocations written since the previous refresh, up to the horizon of the change sequences, and forgets
+     * the expired ones.
+     * @return the number of revocations read.
+     */
+    public Mono<Integer> refresh() {
+        return changeTrackingRepository
+            .findHorizon()
+            .flatMap(horizon ->
+                Mono
+                    .fromCallable(this::getNextSequence)
+                    .flatMapMany(from -> revokedTokenRepository.findRevoked(from, horizon))
+                    .doOnNext(revocation -> add(revocation.getT1(), revocation.getT2()))
+                    .count()
+                    .doOnNext(count -> setNextSequence(horizon))
+                    .map(Long::intValue)
+            )
+            .flatMap(count -> {
+                if (forgetExpired() == 0) {
+                    return Mono.just(count);
+                }
+                return revokedTokenRepository.deleteExpired().thenReturn(count);
+            });
+    }
+
+    private synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    private synchronized void setNextSequence(long horizon) {
+        nextSequence = horizon;
+    }
+
+    private synchronized void add(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        if (revoked.size() > bloomFilter.getExpectedInsertions()) {
+            // the filter is full, its false positive rate would grow past the one it was sized for
+            rebuildBloomFilter();
+        } else {
+            bloomFilter.add(tokenId);
+        }
+    }
+
+    // a Bloom filter cannot forget, so it is rebuilt without the expired tokens
+    private synchronized int forgetExpired() {
+        Instant now = Instant.now();
+        int size = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int expired = size - revoked.size();
+        if (expired > 0) {
+            rebuildBloomFilter();
+        }
+        return expired;
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), falsePositiveProbability);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+}
@@ -6,6 +6,7 @@ import com.honstain.practicetracker.domain.User;
 import com.honstain.practicetracker.repository.AuthorityRepository;
 import com.honstain.practicetracker.repository.UserRepository;
 import com.honstain.practicetracker.security.AuthoritiesConstants;
+import com.honstain.practicetracker.security.DomainUserDetailsService;
 import com.honstain.practicetracker.security.SecurityUtils;
 import com.honstain.practicetracker.service.dto.AdminUserDTO;
 import com.honstain.practicetracker.service.dto.UserDTO;
@@ -18,7 +19,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -36,14 +36,22 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final DomainUserDetailsService userDetailsService;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordHashingService passwordHashingService,
+        AuthorityRepository authorityRepository,
+        DomainUserDetailsService userDetailsService
+    ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.authorityRepository = authorityRepository;
+        this.userDetailsService = userDetailsService;
     }
 
     @Transactional
@@ -66,13 +74,16 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
-                user.setResetKey(null);
-                user.setResetDate(null);
-                return user;
-            })
+            .flatMap(user ->
+                passwordHashingService
+                    .encode(newPassword)
+                    .map(encryptedPassword -> {
+                        user.setPassword(encryptedPassword);
+                        user.setResetKey(null);
+                        user.setResetDate(null);
+                        return user;
+                    })
+            )
             .flatMap(this::saveUser);
     }
 
@@ -109,28 +120,25 @@ public class UserService {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
-            .then(
-                Mono.fromCallable(() -> {
-                    User newUser = new User();
-                    String encryptedPassword = passwordEncoder.encode(password);
-                    newUser.setLogin(userDTO.getLogin().toLowerCase());
-                    // new user gets initially a generated password
-                    newUser.setPassword(encryptedPassword);
-                    newUser.setFirstName(userDTO.getFirstName());
-                    newUser.setLastName(userDTO.getLastName());
-                    if (userDTO.getEmail() != null) {
-                        newUser.setEmail(userDTO.getEmail().toLowerCase());
-                    }
-                    newUser.setImageUrl(userDTO.getImageUrl());
-                    newUser.setLangKey(userDTO.getLangKey());
-                    // new user is not active
-                    newUser.setActivated(false);
-                    // new user gets registration key
-                    newUser.setActivationKey(RandomUtil.generateActivationKey());
-                    return newUser;
-                })
-            )
+            .then(passwordHashingService.encode(password))
+            .map(encryptedPassword -> {
+                User newUser = new User();
+                newUser.setLogin(userDTO.getLogin().toLowerCase());
+                // new user gets initially a generated password
+                newUser.setPassword(encryptedPassword);
+                newUser.setFirstName(userDTO.getFirstName());
+                newUser.setLastName(userDTO.getLastName());
+                if (userDTO.getEmail() != null) {
+                    newUser.setEmail(userDTO.getEmail().toLowerCase());
+                }
+                newUser.setImageUrl(userDTO.getImageUrl());
+                newUser.setLangKey(userDTO.getLangKey());
+                // new user is not active
+                newUser.setActivated(false);
+                // new user gets registration key
+                newUser.setActivationKey(RandomUtil.generateActivationKey());
+                return newUser;
+            })
             .flatMap(newUser -> {
                 Set<Authority> authorities = new HashSet<>();
                 return authorityRepository
@@ -162,15 +170,13 @@ public class UserService {
             .fromIterable(userDTO.getAuthorities() != null ? userDTO.getAuthorities() : new HashSet<>())
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
-            .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
-            .map(newUser -> {
-                String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-                newUser.setPassword(encryptedPassword);
-                newUser.setResetKey(RandomUtil.generateResetKey());
-                newUser.setResetDate(Instant.now());
-                newUser.setActivated(true);
-                return newUser;
+            .then(passwordHashingService.encode(RandomUtil.generatePassword()))
+            .map(encryptedPassword -> {
+                user.setPassword(encryptedPassword);
+                user.setResetKey(RandomUtil.generateResetKey());
+                user.setResetDate(Instant.now());
+                user.setActivated(true);
+                return user;
             })
             .flatMap(this::saveUser)
             .doOnNext(user1 -> log.debug("Created Information for User: {}", user1));
@@ -215,6 +221,7 @@ public class UserService {
         return userRepository
             .findOneByLogin(login)
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .flatMap(user -> userDetailsService.evictAll().thenReturn(user))
             .doOnNext(user -> log.debug("Deleted User: {}", user))
             .then();
     }
@@ -267,7 +274,9 @@ public class UserService {
                             .fromIterable(user.getAuthorities())
                             .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
                             .then(Mono.just(savedUser))
-                    );
+                    )
+                    // the password, the authorities or the activation of the user may have changed
+                    .flatMap(savedUser -> userDetailsService.evictAll().thenReturn(savedUser));
             });
     }
 
@@ -276,16 +285,21 @@ public class UserService {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                    throw new InvalidPasswordException();
-                }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
-                user.setPassword(encryptedPassword);
-                return user;
-            })
+            .flatMap(user ->
+                passwordHashingService
+                    .matches(currentClearTextPassword, user.getPassword())
+                    .flatMap(matches -> {
+                        if (!matches) {
+                            return Mono.error(new InvalidPasswordException());
+                        }
+                        return passwordHashingService.encode(newPassword);
+                    })
+                    .map(encryptedPassword -> {
+                        user.setPassword(encryptedPassword);
+                        return user;
+                    })
+            )
+            // saveUser evicts the cached user details, so the previous password is not accepted anymore
             .flatMap(this::saveUser)
             .doOnNext(user -> log.debug("Changed password for User: {}", user))
             .then();
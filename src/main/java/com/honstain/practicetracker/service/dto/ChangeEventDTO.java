@@ -0,0 +1,92 @@
+package com.honstain.practicetracker.service.dto;
+
+/**
+ * A DTO representing a change of a practice or practice session, sent to the subscribers of the event stream.
+ */
+public class ChangeEventDTO {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private long sequence;
+
+    private String entityName;
+
+    private String action;
+
+    private Long id;
+
+    private Object entity;
+
+    public ChangeEventDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * @param entityName the name of the changed entity, {@code practice} or {@code practiceSession}.
+     * @param action {@link #CREATED}, {@link #UPDATED} or {@link #DELETED}.
+     * @param id the id of the changed entity.
+     * @param entity the entity as it is after the change, or null when it is deleted.
+     */
+    public ChangeEventDTO(String entityName, String action, Long id, Object entity) {
+        this.entityName = entityName;
+        this.action = action;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    /**
+     * @return the position of the event in the stream, a subscriber which sees a gap missed the events between.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public void setEntity(Object entity) {
+        this.entity = entity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeEventDTO{" +
+            "sequence=" + sequence +
+            ", entityName='" + entityName + '\'' +
+            ", action='" + action + '\'' +
+            ", id=" + id +
+            "}";
+    }
+}
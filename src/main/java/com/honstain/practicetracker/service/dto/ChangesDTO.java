@@ -0,0 +1,154 @@
+package com.honstain.practicetracker.service.dto;
+
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import java.util.List;
+
+/**
+ * A DTO representing the practices and practice sessions written, and the ones deleted, since a sync token.
+ */
+public class ChangesDTO {
+
+    private boolean fullSync;
+
+    private List<Practice> practices;
+
+    private List<PracticeSession> practiceSessions;
+
+    private List<Tombstone> deleted;
+
+    private String next;
+
+    public ChangesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ChangesDTO(
+        boolean fullSync,
+        List<Practice> practices,
+        List<PracticeSession> practiceSessions,
+        List<Tombstone> deleted,
+        String next
+    ) {
+        this.fullSync = fullSync;
+        this.practices = practices;
+        this.practiceSessions = practiceSessions;
+        this.deleted = deleted;
+        this.next = next;
+    }
+
+    /**
+     * @return true if every row is returned, the client replaces its copy instead of applying the changes.
+     */
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    /**
+     * @return the practices created or updated, as they are now.
+     */
+    public List<Practice> getPractices() {
+        return practices;
+    }
+
+    public void setPractices(List<Practice> practices) {
+        this.practices = practices;
+    }
+
+    /**
+     * @return the practice sessions created or updated, as they are now, without their practices.
+     */
+    public List<PracticeSession> getPracticeSessions() {
+        return practiceSessions;
+    }
+
+    public void setPracticeSessions(List<PracticeSession> practiceSessions) {
+        this.practiceSessions = practiceSessions;
+    }
+
+    /**
+     * @return the practices and practice sessions deleted.
+     */
+    public List<Tombstone> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Tombstone> deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * @return the token to send with the next sync.
+     */
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangesDTO{" +
+            "fullSync=" + fullSync +
+            ", practices=" + (practices != null ? practices.size() : 0) +
+            ", practiceSessions=" + (practiceSessions != null ? practiceSessions.size() : 0) +
+            ", deleted=" + (deleted != null ? deleted.size() : 0) +
+            ", next='" + next + '\'' +
+            "}";
+    }
+
+    /**
+     * A deleted practice or practice session.
+     */
+    public static class Tombstone {
+
+        private String entityName;
+
+        private Long id;
+
+        public Tombstone() {
+            // Empty constructor needed for Jackson.
+        }
+
+        /**
+         * @param entityName the name of the deleted entity, {@code practice} or {@code practiceSession}.
+         * @param id the id of the deleted entity.
+         */
+        public Tombstone(String entityName, Long id) {
+            this.entityName = entityName;
+            this.id = id;
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        public void setEntityName(String entityName) {
+            this.entityName = entityName;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Tombstone{" +
+                "entityName='" + entityName + '\'' +
+                ", id=" + id +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.honstain.practicetracker.service.dto;
+
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import java.time.Instant;
+
+/**
+ * A DTO representing a problem to practice again, with the history which scheduled it.
+ */
+public class DueProblemDTO {
+
+    private String problemName;
+
+    private String problemLink;
+
+    private PracticeResult lastResult;
+
+    private Instant lastPracticed;
+
+    private int streak;
+
+    private Instant dueAt;
+
+    public DueProblemDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DueProblemDTO(
+        String problemName,
+        String problemLink,
+        PracticeResult lastResult,
+        Instant lastPracticed,
+        int streak,
+        Instant dueAt
+    ) {
+        this.problemName = problemName;
+        this.problemLink = problemLink;
+        this.lastResult = lastResult;
+        this.lastPracticed = lastPracticed;
+        this.streak = streak;
+        this.dueAt = dueAt;
+    }
+
+    public String getProblemName() {
+        return problemName;
+    }
+
+    public void setProblemName(String problemName) {
+        this.problemName = problemName;
+    }
+
+    public String getProblemLink() {
+        return problemLink;
+    }
+
+    public void setProblemLink(String problemLink) {
+        this.problemLink = problemLink;
+    }
+
+    public PracticeResult getLastResult() {
+        return lastResult;
+    }
+
+    public void setLastResult(PracticeResult lastResult) {
+        this.lastResult = lastResult;
+    }
+
+    public Instant getLastPracticed() {
+        return lastPracticed;
+    }
+
+    public void setLastPracticed(Instant lastPracticed) {
+        this.lastPracticed = lastPracticed;
+    }
+
+    /**
+     * @return the number of consecutive passes up to the last practice.
+     */
+    public int getStreak() {
+        return streak;
+    }
+
+    public void setStreak(int streak) {
+        this.streak = streak;
+    }
+
+    public Instant getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(Instant dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DueProblemDTO{" +
+            "problemName='" + problemName + '\'' +
+            ", problemLink='" + problemLink + '\'' +
+            ", lastResult=" + lastResult +
+            ", lastPracticed=" + lastPracticed +
+            ", streak=" + streak +
+            ", dueAt=" + dueAt +
+            "}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.honstain.practicetracker.service.dto;
+
+/**
+ * A DTO representing a problem name matching a search, with the number of practices of the problem.
+ */
+public class ProblemNameMatchDTO {
+
+    private String problemName;
+
+    private long frequency;
+
+    public ProblemNameMatchDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProblemNameMatchDTO(String problemName, long frequency) {
+        this.problemName = problemName;
+        this.frequency = frequency;
+    }
+
+    public String getProblemName() {
+        return problemName;
+    }
+
+    public void setProblemName(String problemName) {
+        this.problemName = problemName;
+    }
+
+    public long getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(long frequency) {
+        this.frequency = frequency;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProblemNameMatchDTO{" +
+            "problemName='" + problemName + '\'' +
+            ", frequency=" + frequency +
+            "}";
+    }
+}
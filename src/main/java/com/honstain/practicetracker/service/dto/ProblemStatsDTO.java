@@ -0,0 +1,85 @@
+package com.honstain.practicetracker.service.dto;
+
+import com.honstain.practicetracker.domain.ProblemStats;
+
+/**
+ * A DTO representing the statistics of the practices of a problem.
+ */
+public class ProblemStatsDTO {
+
+    private static final double P90 = 0.9;
+
+    private String problem;
+
+    private long attempts;
+
+    private Double passRate;
+
+    private Double meanSolveSeconds;
+
+    private Long p90SolveSeconds;
+
+    public ProblemStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProblemStatsDTO(ProblemStats stats) {
+        this.problem = stats.getProblem();
+        this.attempts = stats.getAttempts();
+        this.passRate = stats.getPassRate();
+        this.meanSolveSeconds = stats.getMeanSolveSeconds();
+        this.p90SolveSeconds = stats.getSolveSecondsPercentile(P90);
+    }
+
+    public String getProblem() {
+        return problem;
+    }
+
+    public void setProblem(String problem) {
+        this.problem = problem;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+
+    public Double getPassRate() {
+        return passRate;
+    }
+
+    public void setPassRate(Double passRate) {
+        this.passRate = passRate;
+    }
+
+    public Double getMeanSolveSeconds() {
+        return meanSolveSeconds;
+    }
+
+    public void setMeanSolveSeconds(Double meanSolveSeconds) {
+        this.meanSolveSeconds = meanSolveSeconds;
+    }
+
+    public Long getP90SolveSeconds() {
+        return p90SolveSeconds;
+    }
+
+    public void setP90SolveSeconds(Long p90SolveSeconds) {
+        this.p90SolveSeconds = p90SolveSeconds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProblemStatsDTO{" +
+            "problem='" + problem + '\'' +
+            ", attempts=" + attempts +
+            ", passRate=" + passRate +
+            ", meanSolveSeconds=" + meanSolveSeconds +
+            ", p90SolveSeconds=" + p90SolveSeconds +
+            "}";
+    }
+}
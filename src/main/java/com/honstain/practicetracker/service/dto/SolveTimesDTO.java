@@ -0,0 +1,125 @@
+package com.honstain.practicetracker.service.dto;
+
+import com.honstain.practicetracker.domain.SolveTimeHistogram;
+
+/**
+ * A DTO representing the distribution of the solve times, in seconds, of a set of practices. The minimum, maximum and
+ * percentiles are estimated by the upper bound of their {@link SolveTimeHistogram} bucket, at most 9% above the actual
+ * solve time, the mean is exact.
+ */
+public class SolveTimesDTO {
+
+    private Long problemId;
+
+    private long count;
+
+    private Long minSeconds;
+
+    private Long maxSeconds;
+
+    private Double meanSeconds;
+
+    private Long p50Seconds;
+
+    private Long p90Seconds;
+
+    private Long p99Seconds;
+
+    public SolveTimesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * @param problemId the problem of the practices, or null if they are not of a single problem.
+     * @param histogram the histogram of the solve times.
+     */
+    public SolveTimesDTO(Long problemId, SolveTimeHistogram histogram) {
+        this.problemId = problemId;
+        this.count = histogram.getCount();
+        this.minSeconds = histogram.getPercentile(0);
+        this.maxSeconds = histogram.getPercentile(1);
+        this.meanSeconds = histogram.getMeanSeconds();
+        this.p50Seconds = histogram.getPercentile(0.5);
+        this.p90Seconds = histogram.getPercentile(0.9);
+        this.p99Seconds = histogram.getPercentile(0.99);
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Long getMinSeconds() {
+        return minSeconds;
+    }
+
+    public void setMinSeconds(Long minSeconds) {
+        this.minSeconds = minSeconds;
+    }
+
+    public Long getMaxSeconds() {
+        return maxSeconds;
+    }
+
+    public void setMaxSeconds(Long maxSeconds) {
+        this.maxSeconds = maxSeconds;
+    }
+
+    public Double getMeanSeconds() {
+        return meanSeconds;
+    }
+
+    public void setMeanSeconds(Double meanSeconds) {
+        this.meanSeconds = meanSeconds;
+    }
+
+    public Long getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public void setP50Seconds(Long p50Seconds) {
+        this.p50Seconds = p50Seconds;
+    }
+
+    public Long getP90Seconds() {
+        return p90Seconds;
+    }
+
+    public void setP90Seconds(Long p90Seconds) {
+        this.p90Seconds = p90Seconds;
+    }
+
+    public Long getP99Seconds() {
+        return p99Seconds;
+    }
+
+    public void setP99Seconds(Long p99Seconds) {
+        this.p99Seconds = p99Seconds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SolveTimesDTO{" +
+            "problemId=" + problemId +
+            ", count=" + count +
+            ", minSeconds=" + minSeconds +
+            ", maxSeconds=" + maxSeconds +
+            ", meanSeconds=" + meanSeconds +
+            ", p50Seconds=" + p50Seconds +
+            ", p90Seconds=" + p90Seconds +
+            ", p99Seconds=" + p99Seconds +
+            "}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.service.ChangeEventService;
+import com.honstain.practicetracker.service.dto.ChangeEventDTO;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller streaming the changes of the practices and practice sessions as Server-Sent Events.
+ * <p>
+ * The stream stays open, so unlike {@link PracticeResource} it does not open a transaction.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeEventResource {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private final Logger log = LoggerFactory.getLogger(ChangeEventResource.class);
+
+    private final ChangeEventService changeEventService;
+
+    public ChangeEventResource(ChangeEventService changeEventService) {
+        this.changeEventService = changeEventService;
+    }
+
+    /**
+     * {@code GET  /practices/events} : stream the creates, updates and deletes of the practices and practice sessions.
+     * <p>
+     * Each event is named {@code <entityName>.<action>}, e.g. {@code practice.updated}, and its id is the sequence of the
+     * event: a gap in the ids means the client read too slowly and missed events, it should reload what it displays. A
+     * comment is sent right away once subscribed, then every 15 seconds to keep idle connections open.
+     *
+     * @return the {@link Flux} of the events committed after the subscription.
+     */
+    @GetMapping(value = "/practices/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEventDTO>> getChangeEvents() {
+        log.debug("REST request to stream the change events");
+        Flux<ServerSentEvent<ChangeEventDTO>> events = changeEventService
+            .subscribe()
+            .map(event ->
+                ServerSentEvent
+                    .builder(event)
+                    .id(String.valueOf(event.getSequence()))
+                    .event(event.getEntityName() + "." + event.getAction())
+                    .build()
+            );
+        Flux<ServerSentEvent<ChangeEventDTO>> heartbeats = Flux
+            .interval(HEARTBEAT_INTERVAL)
+            .map(tick -> ServerSentEvent.<ChangeEventDTO>builder().comment("heartbeat").build());
+        // merge subscribes in order, so the first comment is only sent once the subscription to the events is registered
+        return Flux.merge(events, Mono.just(ServerSentEvent.<ChangeEventDTO>builder().comment("subscribed").build()), heartbeats);
+    }
+}
@@ -0,0 +1,59 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.service.ChangeSyncService;
+import com.honstain.practicetracker.service.dto.ChangesDTO;
+import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the delta sync of the practices and practice sessions.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeSyncResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeSyncResource.class);
+
+    private static final String ENTITY_NAME = "practice";
+
+    private final ChangeSyncService changeSyncService;
+
+    public ChangeSyncResource(ChangeSyncService changeSyncService) {
+        this.changeSyncService = changeSyncService;
+    }
+
+    /**
+     * {@code GET  /practices/changes} : get the practices and practice sessions created, updated and deleted since the
+     * previous sync.
+     * <p>
+     * The response holds the rows as they are now, the tombstones of the deleted rows, and the token to send as
+     * {@code since} with the next sync. Without token, or with a token older than the retention of the tombstones,
+     * every row is returned and {@code fullSync} is true.
+     *
+     * @param since the {@code next} token of the previous sync, or absent for a first sync.
+     * @return the changes.
+     */
+    @GetMapping("/practices/changes")
+    public Mono<ChangesDTO> getChanges(@RequestParam(required = false) String since) {
+        log.debug("REST request to get the changes since : {}", since);
+        return changeSyncService.findChangesSince(parseToken(since));
+    }
+
+    private static long parseToken(String since) {
+        if (since == null) {
+            return ChangeSyncService.FULL_SYNC;
+        }
+        try {
+            long token = Long.parseLong(since);
+            if (token >= 0) {
+                return token;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new BadRequestAlertException("Invalid sync token", ENTITY_NAME, "sinceinvalid");
+    }
+}
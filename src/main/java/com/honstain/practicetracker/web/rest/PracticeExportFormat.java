@@ -0,0 +1,99 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.honstain.practicetracker.domain.Practice;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.springframework.http.MediaType;
+
+/**
+ * The formats of {@code GET /api/practices/export}, each practice is encoded on its own line so the export can be written
+ * while the rows are read.
+ */
+enum PracticeExportFormat {
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        byte[] header() {
+            return "id,problem_name,problem_link,start,end,result,practice_session_id\r\n".getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        byte[] encode(Practice practice, ObjectMapper mapper) {
+            String line = String.join(
+                ",",
+                field(practice.getId()),
+                field(practice.getProblemName()),
+                field(practice.getProblemLink()),
+                field(practice.getStart()),
+                field(practice.getEnd()),
+                field(practice.getResult()),
+                field(practice.getPracticeSessionId())
+            );
+            return (line + "\r\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        // RFC 4180: fields containing a separator, a quote or a line break are quoted, and their quotes doubled
+        private String field(Object value) {
+            String text = Objects.toString(value, "");
+            if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+                return "\"" + text.replace("\"", "\"\"") + "\"";
+            }
+            return text;
+        }
+    },
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        byte[] header() {
+            return new byte[0];
+        }
+
+        @Override
+        byte[] encode(Practice practice, ObjectMapper mapper) throws JsonProcessingException {
+            byte[] json = mapper.writeValueAsBytes(practice);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    PracticeExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    MediaType getMediaType() {
+        return mediaType;
+    }
+
+    String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the bytes written before the first practice, possibly none.
+     */
+    abstract byte[] header();
+
+    /**
+     * @return the line of the practice, including its line break.
+     */
+    abstract byte[] encode(Practice practice, ObjectMapper mapper) throws JsonProcessingException;
+
+    /**
+     * @param format the format request parameter, case-insensitive.
+     * @return the format, or null if the parameter is not a known format.
+     */
+    static PracticeExportFormat fromParameter(String format) {
+        for (PracticeExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
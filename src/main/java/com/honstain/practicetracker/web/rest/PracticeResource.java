@@ -1,24 +1,50 @@
 package com.honstain.practicetracker.web.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.honstain.practicetracker.config.ApplicationProperties;
 import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.criteria.PracticeCriteria;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.repository.KeysetCursor;
 import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.ReadThroughCache;
+import com.honstain.practicetracker.service.CollectionVersionService;
+import com.honstain.practicetracker.service.PracticeWriteListener;
 import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import com.honstain.practicetracker.web.util.ConditionalGetUtil;
+import com.honstain.practicetracker.web.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -36,13 +62,49 @@ public class PracticeResource {
 
     private static final String ENTITY_NAME = "practice";
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(
+        Arrays.asList("id", "problemName", "problemLink", "start", "end", "result")
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PracticeRepository practiceRepository;
 
-    public PracticeResource(PracticeRepository practiceRepository) {
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ReadThroughCache<Long, Practice> practiceCache;
+
+    private final List<PracticeWriteListener> practiceWriteListeners;
+
+    private final CollectionVersionService collectionVersionService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public PracticeResource(
+        PracticeRepository practiceRepository,
+        EntityManager entityManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        ReadThroughCache<Long, Practice> practiceCache,
+        List<PracticeWriteListener> practiceWriteListeners,
+        CollectionVersionService collectionVersionService,
+        ApplicationProperties applicationProperties
+    ) {
         this.practiceRepository = practiceRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.practiceCache = practiceCache;
+        this.practiceWriteListeners = practiceWriteListeners;
+        this.collectionVersionService = collectionVersionService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -60,6 +122,7 @@ public class PracticeResource {
         }
         return practiceRepository
             .save(practice)
+            .flatMap(result -> notifyWriteListeners(listener -> listener.practiceCreated(result)).thenReturn(result))
             .map(result -> {
                 try {
                     return ResponseEntity
@@ -72,6 +135,49 @@ public class PracticeResource {
             });
     }
 
+    /**
+     * {@code POST  /practices/batch} : Create new practices in bulk.
+     * <p>
+     * The body is either a JSON array or newline delimited JSON. Every practice is validated before anything is written,
+     * then all of them are inserted in one transaction with a single batched statement.
+     *
+     * @param practices the practices to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the new practices, in
+     * the order of the request, or with status {@code 400 (Bad Request)} if any of the practices is not valid.
+     */
+    @PostMapping(value = "/practices/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Mono<ResponseEntity<List<Long>>> createPractices(@RequestBody Flux<Practice> practices) {
+        log.debug("REST request to save a batch of Practices");
+        return practices
+            .take(MAX_BATCH_SIZE + 1L)
+            .collectList()
+            .flatMap(batch -> {
+                if (batch.size() > MAX_BATCH_SIZE) {
+                    return Mono.error(
+                        new BadRequestAlertException("A batch cannot exceed " + MAX_BATCH_SIZE + " practices", ENTITY_NAME, "batchtoolarge")
+                    );
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    validateNewPractice(i, batch.get(i));
+                }
+                return practiceRepository
+                    .insertAll(batch)
+                    .collectList()
+                    .flatMap(ids -> {
+                        for (int i = 0; i < ids.size(); i++) {
+                            batch.get(i).setId(ids.get(i));
+                        }
+                        return notifyWriteListeners(listener -> listener.practicesCreated(batch)).thenReturn(ids);
+                    });
+            })
+            .map(ids ->
+                ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .headers(HeaderUtil.createAlert(applicationName, ids.size() + " new practices are created", String.valueOf(ids.size())))
+                    .body(ids)
+            );
+    }
+
     /**
      * {@code PUT  /practices/:id} : Updates an existing practice.
      *
@@ -79,6 +185,7 @@ public class PracticeResource {
      * @param practice the practice to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated practice,
      * or with status {@code 400 (Bad Request)} if the practice is not valid,
+     * or with status {@code 404 (Not Found)} if the practice is not found,
      * or with status {@code 500 (Internal Server Error)} if the practice couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -96,22 +203,19 @@ public class PracticeResource {
         }
 
         return practiceRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return practiceRepository
-                    .save(practice)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+            .updateReturningPrevious(practice)
+            .flatMap(previousAndResult ->
+                notifyWriteListeners(listener -> listener.practiceUpdated(previousAndResult.getT1(), previousAndResult.getT2()))
+                    .thenReturn(previousAndResult.getT2())
+            )
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .flatMap(result -> practiceCache.evict(result.getId()).thenReturn(result))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
@@ -139,65 +243,140 @@ public class PracticeResource {
         }
 
         return practiceRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<Practice> result = practiceRepository
-                    .findById(practice.getId())
-                    .map(existingPractice -> {
-                        if (practice.getProblemName() != null) {
-                            existingPractice.setProblemName(practice.getProblemName());
-                        }
-                        if (practice.getProblemLink() != null) {
-                            existingPractice.setProblemLink(practice.getProblemLink());
-                        }
-                        if (practice.getStart() != null) {
-                            existingPractice.setStart(practice.getStart());
-                        }
-                        if (practice.getEnd() != null) {
-                            existingPractice.setEnd(practice.getEnd());
-                        }
-                        if (practice.getResult() != null) {
-                            existingPractice.setResult(practice.getResult());
-                        }
-
-                        return existingPractice;
-                    })
-                    .flatMap(practiceRepository::save);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+            .updateNonNullFieldsReturningPrevious(practice)
+            .flatMap(previousAndResult ->
+                notifyWriteListeners(listener -> listener.practiceUpdated(previousAndResult.getT1(), previousAndResult.getT2()))
+                    .thenReturn(previousAndResult.getT2())
+            )
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .flatMap(result -> practiceCache.evict(result.getId()).thenReturn(result))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
      * {@code GET  /practices} : get all the practices.
+     * <p>
+     * The response carries an {@code ETag}, a request whose {@code If-None-Match} header matches the current one is
+     * answered without reading the practices.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of practices in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of practices in body, or with status
+     * {@code 304 (Not Modified)} if the practices did not change.
      */
     @GetMapping("/practices")
-    public Mono<List<Practice>> getAllPractices() {
-        log.debug("REST request to get all Practices");
-        return practiceRepository.findAll().collectList();
+    public Mono<ResponseEntity<List<Practice>>> getAllPractices(PracticeCriteria criteria, ServerWebExchange exchange) {
+        log.debug("REST request to get all Practices by criteria: {}", criteria);
+        return ConditionalGetUtil.ifNoneMatch(
+            exchange,
+            collectionVersionService.currentETag(),
+            () -> practiceRepository.findByCriteria(criteria, null).collectList()
+        );
+    }
+
+    /**
+     * {@code GET  /practices?size=} : get a page of the practices, using keyset pagination.
+     * <p>
+     * The page following the previous one is requested with the cursor returned in the {@code X-Next-Cursor} header, the
+     * cost of a page does not depend on how deep it is. The sort of the first page is kept by the following pages.
+     *
+     * @param request a {@link ServerHttpRequest} request.
+     * @param after the cursor returned with the previous page, or null for the first page.
+     * @param pageable the page size and the sort of the first page.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of practices in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/practices", params = "size")
+    public Mono<ResponseEntity<List<Practice>>> getPracticesPage(
+        ServerHttpRequest request,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        PracticeCriteria criteria
+    ) {
+        log.debug("REST request to get a page of Practices after : {} by criteria: {}", after, criteria);
+        KeysetCursor cursor = decodeCursor(after);
+        Sort sort = cursor != null ? cursor.getSort() : pageable.getSort();
+        if (!onlyContainsAllowedProperties(sort)) {
+            throw new BadRequestAlertException("Invalid sort property", ENTITY_NAME, "sortinvalid");
+        }
+        int size = pageable.getPageSize();
+        return practiceRepository
+            .findAllAfter(criteria, cursor, sort, size)
+            .collectList()
+            .map(page ->
+                ResponseEntity
+                    .ok()
+                    .headers(
+                        KeysetPaginationUtil.generateKeysetHttpHeaders(
+                            UriComponentsBuilder.fromHttpRequest(request),
+                            page,
+                            size,
+                            last -> entityManager.createCursor(last, cursor, sort)
+                        )
+                    )
+                    .body(page)
+            );
     }
 
     /**
      * {@code GET  /practices} : get all the practices as a stream.
+     * @param criteria the criteria which the requested entities should match.
      * @return the {@link Flux} of practices.
      */
     @GetMapping(value = "/practices", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<Practice> getAllPracticesAsStream() {
-        log.debug("REST request to get all Practices as a stream");
-        return practiceRepository.findAll();
+    public Flux<Practice> getAllPracticesAsStream(PracticeCriteria criteria) {
+        log.debug("REST request to get all Practices as a stream by criteria: {}", criteria);
+        return practiceRepository.findByCriteria(criteria, null);
+    }
+
+    /**
+     * {@code GET  /practices/export} : export the practices as a file.
+     * <p>
+     * The rows are streamed from a database cursor and written as they arrive, one buffer per practice, so the memory used
+     * does not depend on the number of practices and the download starts with the first fetch. The cursor needs a
+     * transaction, which is read-only, and the export fails when the database or the client stalls for longer than the
+     * configured idle timeout, so a stalled download never holds its connection for long.
+     *
+     * @param format {@code csv} or {@code ndjson}.
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response, to set the content type and the file name.
+     * @return the {@link Flux} of buffers of the file, or with status {@code 400 (Bad Request)} if the format is not valid.
+     */
+    @GetMapping("/practices/export")
+    @Transactional(readOnly = true)
+    public Flux<DataBuffer> exportPractices(
+        @RequestParam(defaultValue = "ndjson") String format,
+        PracticeCriteria criteria,
+        ServerHttpResponse response
+    ) {
+        log.debug("REST request to export Practices as {} by criteria: {}", format, criteria);
+        PracticeExportFormat exportFormat = PracticeExportFormat.fromParameter(format);
+        if (exportFormat == null) {
+            throw new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.getHeaders().setContentType(exportFormat.getMediaType());
+        response
+            .getHeaders()
+            .setContentDisposition(ContentDisposition.attachment().filename("practices." + exportFormat.getExtension()).build());
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        Flux<DataBuffer> rows = practiceRepository
+            .streamByCriteria(criteria, applicationProperties.getExport().getFetchSize())
+            .map(practice -> {
+                try {
+                    return bufferFactory.wrap(exportFormat.encode(practice, objectMapper));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Could not export practice " + practice.getId(), e);
+                }
+            });
+        return Flux
+            .concat(Mono.fromSupplier(() -> bufferFactory.wrap(exportFormat.header())), rows)
+            .timeout(applicationProperties.getExport().getIdleTimeout());
     }
 
     /**
@@ -209,7 +388,7 @@ public class PracticeResource {
     @GetMapping("/practices/{id}")
     public Mono<ResponseEntity<Practice>> getPractice(@PathVariable Long id) {
         log.debug("REST request to get Practice : {}", id);
-        Mono<Practice> practice = practiceRepository.findById(id);
+        Mono<Practice> practice = practiceCache.get(id);
         return ResponseUtil.wrapOrNotFound(practice);
     }
 
@@ -223,7 +402,9 @@ public class PracticeResource {
     public Mono<ResponseEntity<Void>> deletePractice(@PathVariable Long id) {
         log.debug("REST request to delete Practice : {}", id);
         return practiceRepository
-            .deleteById(id)
+            .deleteByIdReturningPrevious(id)
+            .flatMap(previous -> notifyWriteListeners(listener -> listener.practiceDeleted(previous)))
+            .then(practiceCache.evict(id))
             .then(
                 Mono.just(
                     ResponseEntity
@@ -233,4 +414,46 @@ public class PracticeResource {
                 )
             );
     }
+
+    // within the transaction of the write, so that the listeners can write their derived state in the same transaction
+    private Mono<Void> notifyWriteListeners(Function<PracticeWriteListener, Mono<Void>> notification) {
+        return Flux.fromIterable(practiceWriteListeners).concatMap(notification).then();
+    }
+
+    private void validateNewPractice(int index, Practice practice) {
+        if (practice.getId() != null) {
+            throw new BadRequestAlertException("A new practice cannot already have an ID, at index " + index, ENTITY_NAME, "idexists");
+        }
+        if (practice.getPracticeSessionId() == null) {
+            throw new BadRequestAlertException(
+                "A practice must belong to a practice session, at index " + index,
+                ENTITY_NAME,
+                "sessionnull"
+            );
+        }
+        Set<ConstraintViolation<Practice>> violations = validator.validate(practice);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Practice> violation = violations.iterator().next();
+            throw new BadRequestAlertException(
+                "Invalid practice at index " + index + ": " + violation.getPropertyPath() + " " + violation.getMessage(),
+                ENTITY_NAME,
+                "batchinvalid"
+            );
+        }
+    }
+
+    private KeysetCursor decodeCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private boolean onlyContainsAllowedProperties(Sort sort) {
+        return sort.stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
+    }
 }
@@ -0,0 +1,49 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.service.PracticeScheduleService;
+import com.honstain.practicetracker.service.dto.DueProblemDTO;
+import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the practice schedule, the problems to practice again.
+ * <p>
+ * It is answered from memory once the schedules are rebuilt, so unlike {@link PracticeResource} it does not open a
+ * transaction.
+ */
+@RestController
+@RequestMapping("/api")
+public class PracticeScheduleResource {
+
+    private final Logger log = LoggerFactory.getLogger(PracticeScheduleResource.class);
+
+    private static final String ENTITY_NAME = "practice";
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final PracticeScheduleService practiceScheduleService;
+
+    public PracticeScheduleResource(PracticeScheduleService practiceScheduleService) {
+        this.practiceScheduleService = practiceScheduleService;
+    }
+
+    /**
+     * {@code GET  /practices/due} : get the problems due for practice, the most overdue first.
+     *
+     * @param limit the maximum number of problems, at most {@value #MAX_LIMIT}.
+     * @return the due problems, or with status {@code 400 (Bad Request)} if the limit is not valid.
+     */
+    @GetMapping("/practices/due")
+    public Mono<List<DueProblemDTO>> getDueProblems(@RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to get the due problems, limit : {}", limit);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestAlertException("The limit must be between 1 and " + MAX_LIMIT, ENTITY_NAME, "limitinvalid");
+        }
+        return practiceScheduleService.findDue(Instant.now(), limit);
+    }
+}
@@ -1,22 +1,38 @@
 package com.honstain.practicetracker.web.rest;
 
+import com.honstain.practicetracker.domain.Practice;
 import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.repository.KeysetCursor;
+import com.honstain.practicetracker.repository.PracticeRepository;
 import com.honstain.practicetracker.repository.PracticeSessionRepository;
+import com.honstain.practicetracker.repository.ReadThroughCache;
+import com.honstain.practicetracker.service.ChangeEventService;
+import com.honstain.practicetracker.service.CollectionVersionService;
 import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import com.honstain.practicetracker.web.util.ConditionalGetUtil;
+import com.honstain.practicetracker.web.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -34,13 +50,43 @@ public class PracticeSessionResource {
 
     private static final String ENTITY_NAME = "practiceSession";
 
+    private static final String INCLUDE_PRACTICES = "practices";
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "start", "end"));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PracticeSessionRepository practiceSessionRepository;
 
-    public PracticeSessionResource(PracticeSessionRepository practiceSessionRepository) {
+    private final PracticeRepository practiceRepository;
+
+    private final EntityManager entityManager;
+
+    private final ReadThroughCache<Long, PracticeSession> practiceSessionCache;
+
+    private final ReadThroughCache<Long, Practice> practiceCache;
+
+    private final ChangeEventService changeEventService;
+
+    private final CollectionVersionService collectionVersionService;
+
+    public PracticeSessionResource(
+        PracticeSessionRepository practiceSessionRepository,
+        PracticeRepository practiceRepository,
+        EntityManager entityManager,
+        ReadThroughCache<Long, PracticeSession> practiceSessionCache,
+        ReadThroughCache<Long, Practice> practiceCache,
+        ChangeEventService changeEventService,
+        CollectionVersionService collectionVersionService
+    ) {
         this.practiceSessionRepository = practiceSessionRepository;
+        this.practiceRepository = practiceRepository;
+        this.entityManager = entityManager;
+        this.practiceSessionCache = practiceSessionCache;
+        this.practiceCache = practiceCache;
+        this.changeEventService = changeEventService;
+        this.collectionVersionService = collectionVersionService;
     }
 
     /**
@@ -59,6 +105,7 @@ public class PracticeSessionResource {
         }
         return practiceSessionRepository
             .save(practiceSession)
+            .flatMap(result -> changeEventService.practiceSessionCreated(result).thenReturn(result))
             .map(result -> {
                 try {
                     return ResponseEntity
@@ -78,6 +125,7 @@ public class PracticeSessionResource {
      * @param practiceSession the practiceSession to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated practiceSession,
      * or with status {@code 400 (Bad Request)} if the practiceSession is not valid,
+     * or with status {@code 404 (Not Found)} if the practiceSession is not found,
      * or with status {@code 500 (Internal Server Error)} if the practiceSession couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -95,22 +143,16 @@ public class PracticeSessionResource {
         }
 
         return practiceSessionRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return practiceSessionRepository
-                    .save(practiceSession)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+            .update(practiceSession)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .flatMap(result -> evict(result.getId()).thenReturn(result))
+            .flatMap(result -> changeEventService.practiceSessionUpdated(result).thenReturn(result))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
@@ -138,68 +180,105 @@ public class PracticeSessionResource {
         }
 
         return practiceSessionRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<PracticeSession> result = practiceSessionRepository
-                    .findById(practiceSession.getId())
-                    .map(existingPracticeSession -> {
-                        if (practiceSession.getStart() != null) {
-                            existingPracticeSession.setStart(practiceSession.getStart());
-                        }
-                        if (practiceSession.getEnd() != null) {
-                            existingPracticeSession.setEnd(practiceSession.getEnd());
-                        }
-
-                        return existingPracticeSession;
-                    })
-                    .flatMap(practiceSessionRepository::save);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+            .updateNonNullFields(practiceSession)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .flatMap(result -> evict(result.getId()).thenReturn(result))
+            .flatMap(result -> changeEventService.practiceSessionUpdated(result).thenReturn(result))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
      * {@code GET  /practice-sessions} : get all the practiceSessions.
+     * <p>
+     * The response carries an {@code ETag}, a request whose {@code If-None-Match} header matches the current one is
+     * answered without reading the practiceSessions.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of practiceSessions in body.
+     * @param include {@code practices} to embed the practices of each practiceSession, or null.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of practiceSessions in body, or with
+     * status {@code 304 (Not Modified)} if the practiceSessions did not change.
      */
     @GetMapping("/practice-sessions")
-    public Mono<List<PracticeSession>> getAllPracticeSessions() {
-        log.debug("REST request to get all PracticeSessions");
-        return practiceSessionRepository.findAll().collectList();
+    public Mono<ResponseEntity<List<PracticeSession>>> getAllPracticeSessions(
+        @RequestParam(required = false) String include,
+        ServerWebExchange exchange
+    ) {
+        log.debug("REST request to get all PracticeSessions, include : {}", include);
+        return ConditionalGetUtil.ifNoneMatch(exchange, collectionVersionService.currentETag(), () -> findAll(include).collectList());
+    }
+
+    /**
+     * {@code GET  /practice-sessions?size=} : get a page of the practiceSessions, using keyset pagination.
+     * <p>
+     * The page following the previous one is requested with the cursor returned in the {@code X-Next-Cursor} header, the
+     * cost of a page does not depend on how deep it is. The sort of the first page is kept by the following pages.
+     *
+     * @param request a {@link ServerHttpRequest} request.
+     * @param after the cursor returned with the previous page, or null for the first page.
+     * @param pageable the page size and the sort of the first page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of practiceSessions in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/practice-sessions", params = "size")
+    public Mono<ResponseEntity<List<PracticeSession>>> getPracticeSessionsPage(
+        ServerHttpRequest request,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of PracticeSessions after : {}", after);
+        KeysetCursor cursor = decodeCursor(after);
+        Sort sort = cursor != null ? cursor.getSort() : pageable.getSort();
+        if (!onlyContainsAllowedProperties(sort)) {
+            throw new BadRequestAlertException("Invalid sort property", ENTITY_NAME, "sortinvalid");
+        }
+        int size = pageable.getPageSize();
+        return practiceSessionRepository
+            .findAllAfter(cursor, sort, size)
+            .collectList()
+            .map(page ->
+                ResponseEntity
+                    .ok()
+                    .headers(
+                        KeysetPaginationUtil.generateKeysetHttpHeaders(
+                            UriComponentsBuilder.fromHttpRequest(request),
+                            page,
+                            size,
+                            last -> entityManager.createCursor(last, cursor, sort)
+                        )
+                    )
+                    .body(page)
+            );
     }
 
     /**
      * {@code GET  /practice-sessions} : get all the practiceSessions as a stream.
+     * @param include {@code practices} to embed the practices of each practiceSession, or null.
      * @return the {@link Flux} of practiceSessions.
      */
     @GetMapping(value = "/practice-sessions", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<PracticeSession> getAllPracticeSessionsAsStream() {
-        log.debug("REST request to get all PracticeSessions as a stream");
-        return practiceSessionRepository.findAll();
+    public Flux<PracticeSession> getAllPracticeSessionsAsStream(@RequestParam(required = false) String include) {
+        log.debug("REST request to get all PracticeSessions as a stream, include : {}", include);
+        return findAll(include);
     }
 
     /**
      * {@code GET  /practice-sessions/:id} : get the "id" practiceSession.
      *
      * @param id the id of the practiceSession to retrieve.
+     * @param include {@code practices} to embed the practices of the practiceSession, or null.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the practiceSession, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/practice-sessions/{id}")
-    public Mono<ResponseEntity<PracticeSession>> getPracticeSession(@PathVariable Long id) {
-        log.debug("REST request to get PracticeSession : {}", id);
-        Mono<PracticeSession> practiceSession = practiceSessionRepository.findById(id);
+    public Mono<ResponseEntity<PracticeSession>> getPracticeSession(@PathVariable Long id, @RequestParam(required = false) String include) {
+        log.debug("REST request to get PracticeSession : {}, include : {}", id, include);
+        Mono<PracticeSession> practiceSession = includesPractices(include)
+            ? practiceSessionRepository.findByIdWithPractices(id)
+            : practiceSessionCache.get(id);
         return ResponseUtil.wrapOrNotFound(practiceSession);
     }
 
@@ -214,6 +293,8 @@ public class PracticeSessionResource {
         log.debug("REST request to delete PracticeSession : {}", id);
         return practiceSessionRepository
             .deleteById(id)
+            .then(evict(id))
+            .then(changeEventService.practiceSessionDeleted(id))
             .then(
                 Mono.just(
                     ResponseEntity
@@ -223,4 +304,41 @@ public class PracticeSessionResource {
                 )
             );
     }
+
+    // the cached practices embed their practiceSession, a practice moving to another session is evicted by its own write
+    private Mono<Void> evict(Long id) {
+        return practiceSessionCache
+            .evict(id)
+            .then(practiceRepository.findIdsByPracticeSession(id).collectList())
+            .flatMap(practiceCache::evictAll);
+    }
+
+    private Flux<PracticeSession> findAll(String include) {
+        return includesPractices(include) ? practiceSessionRepository.findAllWithPractices() : practiceSessionRepository.findAll();
+    }
+
+    private boolean includesPractices(String include) {
+        if (include == null) {
+            return false;
+        }
+        if (!INCLUDE_PRACTICES.equals(include)) {
+            throw new BadRequestAlertException("Invalid include", ENTITY_NAME, "includeinvalid");
+        }
+        return true;
+    }
+
+    private KeysetCursor decodeCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private boolean onlyContainsAllowedProperties(Sort sort) {
+        return sort.stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
+    }
 }
@@ -0,0 +1,54 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.service.ProblemNameSearchService;
+import com.honstain.practicetracker.service.dto.ProblemNameMatchDTO;
+import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the typeahead search of the problem names.
+ * <p>
+ * The prefix matches are answered from memory, so unlike {@link PracticeResource} it does not open a transaction.
+ */
+@RestController
+@RequestMapping("/api")
+public class ProblemNameSearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(ProblemNameSearchResource.class);
+
+    private static final String ENTITY_NAME = "practice";
+
+    private final ProblemNameSearchService problemNameSearchService;
+
+    public ProblemNameSearchResource(ProblemNameSearchService problemNameSearchService) {
+        this.problemNameSearchService = problemNameSearchService;
+    }
+
+    /**
+     * {@code GET  /practices/search?q=} : search the problem names, for the typeahead of the practice form.
+     *
+     * @param q the text to find in the problem names, case-insensitively.
+     * @param limit the maximum number of names, at most {@value ProblemNameSearchService#MAX_LIMIT}.
+     * @return the names starting with the text then the names containing it, each ranked by number of practices, or
+     * with status {@code 400 (Bad Request)} if the query or the limit is not valid.
+     */
+    @GetMapping("/practices/search")
+    public Mono<List<ProblemNameMatchDTO>> searchProblemNames(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to search the problem names : {}, limit : {}", q, limit);
+        if (q.isBlank()) {
+            throw new BadRequestAlertException("The query cannot be blank", ENTITY_NAME, "queryblank");
+        }
+        if (limit < 1 || limit > ProblemNameSearchService.MAX_LIMIT) {
+            throw new BadRequestAlertException(
+                "The limit must be between 1 and " + ProblemNameSearchService.MAX_LIMIT,
+                ENTITY_NAME,
+                "limitinvalid"
+            );
+        }
+        return problemNameSearchService.search(q, limit);
+    }
+}
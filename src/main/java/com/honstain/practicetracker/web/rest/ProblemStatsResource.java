@@ -0,0 +1,63 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.domain.ProblemStats;
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import com.honstain.practicetracker.service.ProblemStatsService;
+import com.honstain.practicetracker.service.dto.ProblemStatsDTO;
+import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the per problem statistics of the practices.
+ */
+@RestController
+@RequestMapping("/api")
+public class ProblemStatsResource {
+
+    private final Logger log = LoggerFactory.getLogger(ProblemStatsResource.class);
+
+    private static final String ENTITY_NAME = "problemStats";
+
+    private final ProblemStatsService problemStatsService;
+
+    public ProblemStatsResource(ProblemStatsService problemStatsService) {
+        this.problemStatsService = problemStatsService;
+    }
+
+    /**
+     * {@code GET  /stats/problems} : get the statistics of every problem, read from the rollups maintained by the
+     * practice writes.
+     *
+     * @param groupBy {@code problemName}, the default, or {@code problemLink}.
+     * @return the statistics ordered by problem: attempts, pass rate, mean and p90 solve time in seconds.
+     */
+    @GetMapping("/stats/problems")
+    public Mono<List<ProblemStatsDTO>> getProblemStats(@RequestParam(defaultValue = ProblemStats.BY_PROBLEM_NAME) String groupBy) {
+        log.debug("REST request to get the problem statistics, grouped by : {}", groupBy);
+        if (!ProblemStatsService.DIMENSIONS.contains(groupBy)) {
+            throw new BadRequestAlertException(
+                "Invalid groupBy, expected one of " + ProblemStatsService.DIMENSIONS,
+                ENTITY_NAME,
+                "groupbyinvalid"
+            );
+        }
+        return problemStatsService.findAll(groupBy).collectList();
+    }
+
+    /**
+     * {@code POST  /stats/problems/rebuild} : recompute the statistics from the practices, for backfills.
+     *
+     * @return the number of statistics, per dimension and problem.
+     */
+    @PostMapping("/stats/problems/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<Integer> rebuildProblemStats() {
+        log.debug("REST request to rebuild the problem statistics");
+        return problemStatsService.rebuild();
+    }
+}
@@ -0,0 +1,84 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import com.honstain.practicetracker.service.SolveTimeStatsService;
+import com.honstain.practicetracker.service.dto.SolveTimesDTO;
+import com.honstain.practicetracker.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the solve time percentiles of the practices.
+ */
+@RestController
+@RequestMapping("/api")
+public class SolveTimeStatsResource {
+
+    private final Logger log = LoggerFactory.getLogger(SolveTimeStatsResource.class);
+
+    private static final String ENTITY_NAME = "solveTimes";
+
+    private final SolveTimeStatsService solveTimeStatsService;
+
+    public SolveTimeStatsResource(SolveTimeStatsService solveTimeStatsService) {
+        this.solveTimeStatsService = solveTimeStatsService;
+    }
+
+    /**
+     * {@code GET  /stats/solve-times} : get the solve times of the problems over a window of days, merged from the daily
+     * histograms maintained by the practice writes.
+     * <p>
+     * The mean is exact. The min, max and percentiles are the upper bound of their histogram bucket, with
+     * {@link com.honstain.practicetracker.domain.SolveTimeHistogram#SUB_BUCKETS} buckets per power of two seconds, so they
+     * may overstate the solve time by up to 9% (2^(1/8)), where the former HdrHistogram kept 2 significant digits (1%).
+     *
+     * @param problemId the problem, or every problem if absent.
+     * @param from the first day (UTC) of the window, inclusive, or no lower bound if absent.
+     * @param to the last day (UTC) of the window, inclusive, or no upper bound if absent.
+     * @return the solve times of each problem with finished practices in the window, ordered by problem id: count, min, max,
+     * mean, p50, p90 and p99 in seconds.
+     */
+    @GetMapping("/stats/solve-times")
+    public Mono<List<SolveTimesDTO>> getSolveTimes(
+        @RequestParam(required = false) Long problemId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get the solve times of problem {} from {} to {}", problemId, from, to);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestAlertException("Invalid window, from is after to", ENTITY_NAME, "windowinvalid");
+        }
+        return solveTimeStatsService.findAll(problemId, from, to).collectList();
+    }
+
+    /**
+     * {@code GET  /stats/solve-times/sessions/:id} : get the solve times of the practices of a session, with the same
+     * precision as {@link #getSolveTimes}.
+     *
+     * @param id the id of the practice session.
+     * @return the solve times: count, min, max, mean, p50, p90 and p99 in seconds.
+     */
+    @GetMapping("/stats/solve-times/sessions/{id}")
+    public Mono<SolveTimesDTO> getPracticeSessionSolveTimes(@PathVariable Long id) {
+        log.debug("REST request to get the solve times of PracticeSession : {}", id);
+        return solveTimeStatsService.findByPracticeSession(id);
+    }
+
+    /**
+     * {@code POST  /stats/solve-times/rebuild} : recompute the histograms from the practices, for backfills.
+     *
+     * @return the number of histograms, per problem and day.
+     */
+    @PostMapping("/stats/solve-times/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<Integer> rebuildSolveTimes() {
+        log.debug("REST request to rebuild the solve time histograms");
+        return solveTimeStatsService.rebuild();
+    }
+}
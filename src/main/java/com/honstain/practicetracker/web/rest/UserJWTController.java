@@ -1,16 +1,26 @@
 package com.honstain.practicetracker.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.honstain.practicetracker.security.AuthenticationRateLimiter;
+import com.honstain.practicetracker.security.TooManyAuthenticationAttemptsException;
 import com.honstain.practicetracker.security.jwt.JWTFilter;
 import com.honstain.practicetracker.security.jwt.TokenProvider;
+import com.honstain.practicetracker.service.TokenRevocationService;
 import com.honstain.practicetracker.web.rest.vm.LoginVM;
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -25,19 +35,47 @@ public class UserJWTController {
 
     private final ReactiveAuthenticationManager authenticationManager;
 
-    public UserJWTController(TokenProvider tokenProvider, ReactiveAuthenticationManager authenticationManager) {
+    private final AuthenticationRateLimiter authenticationRateLimiter;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        ReactiveAuthenticationManager authenticationManager,
+        AuthenticationRateLimiter authenticationRateLimiter,
+        TokenRevocationService tokenRevocationService
+    ) {
         this.tokenProvider = tokenProvider;
         this.authenticationManager = authenticationManager;
+        this.authenticationRateLimiter = authenticationRateLimiter;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
+    /**
+     * {@code POST  /authenticate} : authenticate a user.
+     * <p>
+     * The attempts are rate limited per client address, and per login once a wrong password was given for it, before
+     * the password is hashed.
+     *
+     * @param loginVM the login and password.
+     * @param exchange the current exchange, for the address of the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the token, or with status
+     * {@code 429 (Too Many Requests)} and a {@code Retry-After} header if the rate limit is exceeded.
+     */
     @PostMapping("/authenticate")
-    public Mono<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody Mono<LoginVM> loginVM) {
+    public Mono<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody Mono<LoginVM> loginVM, ServerWebExchange exchange) {
         return loginVM
-            .flatMap(login ->
-                authenticationManager
+            .flatMap(login -> {
+                Duration retryAfter = authenticationRateLimiter.tryAcquire(login.getUsername(), clientAddress(exchange));
+                if (!retryAfter.isZero()) {
+                    return Mono.error(new TooManyAuthenticationAttemptsException(retryAfter));
+                }
+                return authenticationManager
                     .authenticate(new UsernamePasswordAuthenticationToken(login.getUsername(), login.getPassword()))
-                    .flatMap(auth -> Mono.fromCallable(() -> tokenProvider.createToken(auth, login.isRememberMe())))
-            )
+                    // an unknown login fails with UsernameNotFoundException instead, it gets no bucket
+                    .doOnError(BadCredentialsException.class, e -> authenticationRateLimiter.loginFailed(login.getUsername()))
+                    .flatMap(auth -> Mono.fromCallable(() -> tokenProvider.createToken(auth, login.isRememberMe())));
+            })
             .map(jwt -> {
                 HttpHeaders httpHeaders = new HttpHeaders();
                 httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
@@ -45,6 +83,38 @@ public class UserJWTController {
             });
     }
 
+    /**
+     * {@code POST  /logout} : revoke the token of the request, it is rejected from then on, until it expires.
+     *
+     * @return a completed {@link Mono} once the token is revoked.
+     */
+    @PostMapping("/logout")
+    public Mono<Void> logout() {
+        return ReactiveSecurityContextHolder
+            .getContext()
+            .map(SecurityContext::getAuthentication)
+            .map(Authentication::getCredentials)
+            .filter(String.class::isInstance)
+            .mapNotNull(token -> tokenProvider.verifyToken((String) token))
+            // the tokens issued before they had an id cannot be revoked
+            .filter(verifiedToken -> verifiedToken.getTokenId() != null && verifiedToken.getExpiration() != null)
+            .flatMap(verifiedToken -> tokenRevocationService.revoke(verifiedToken.getTokenId(), verifiedToken.getExpiration()));
+    }
+
+    /**
+     * The address of the client, the key of its rate limit. With {@code server.forward-headers-strategy: framework}, the
+     * remote address is taken from the {@code Forwarded} or {@code X-Forwarded-For} header of the request, so behind a
+     * proxy each client has its own bucket. The application must then only be reachable through the proxy, which sets
+     * the header, or a client could pick its address.
+     */
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
@@ -1,5 +1,7 @@
 package com.honstain.practicetracker.web.rest.errors;
 
+import com.honstain.practicetracker.security.TooManyAuthenticationAttemptsException;
+import com.honstain.practicetracker.service.PasswordHashingUnavailableException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -13,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.stereotype.Component;
@@ -149,6 +152,29 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public Mono<ResponseEntity<Problem>> handlePasswordHashingUnavailableException(
+        PasswordHashingUnavailableException ex,
+        ServerWebExchange request
+    ) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public Mono<ResponseEntity<Problem>> handleTooManyAuthenticationAttemptsException(
+        TooManyAuthenticationAttemptsException ex,
+        ServerWebExchange request
+    ) {
+        Problem problem = Problem.builder().withStatus(Status.TOO_MANY_REQUESTS).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        // whole seconds, rounded up so that a retry right after the delay is allowed
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().plusSeconds(1).minusNanos(1).getSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
     @ExceptionHandler
     public Mono<ResponseEntity<Problem>> handleBadRequestAlertException(BadRequestAlertException ex, ServerWebExchange request) {
         return create(
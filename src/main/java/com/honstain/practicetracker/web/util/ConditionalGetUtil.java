@@ -0,0 +1,34 @@
+package com.honstain.practicetracker.web.util;
+
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for handling conditional GET requests with entity tags.
+ */
+public final class ConditionalGetUtil {
+
+    private ConditionalGetUtil() {}
+
+    /**
+     * Answer a GET request with {@code 304 (Not Modified)} when its {@code If-None-Match} header matches the entity tag,
+     * without computing the body, or with {@code 200 (OK)}, the body and the entity tag otherwise.
+     *
+     * @param exchange the current exchange.
+     * @param eTag the current entity tag, computed before the body.
+     * @param body computes the body.
+     * @param <T> the type of the body.
+     * @return the {@link ResponseEntity}.
+     */
+    public static <T> Mono<ResponseEntity<T>> ifNoneMatch(ServerWebExchange exchange, Mono<String> eTag, Supplier<Mono<T>> body) {
+        return eTag.flatMap(tag -> {
+            if (exchange.checkNotModified(tag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build());
+            }
+            return body.get().map(result -> ResponseEntity.ok().eTag(tag).body(result));
+        });
+    }
+}
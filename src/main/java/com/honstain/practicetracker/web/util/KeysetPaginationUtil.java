@@ -0,0 +1,48 @@
+package com.honstain.practicetracker.web.util;
+
+import com.honstain.practicetracker.repository.KeysetCursor;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * Keyset pages carry no total count, instead the position of the next page is returned in the {@code X-Next-Cursor}
+ * header and as a {@code Link} header with {@code rel="next"}, both are omitted on the last page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate the pagination headers of a keyset page.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param page the rows of the page.
+     * @param pageSize the requested page size.
+     * @param cursorOf creates the cursor pointing after the given row.
+     * @param <T> the type of the rows.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        List<T> page,
+        int pageSize,
+        Function<T, KeysetCursor> cursorOf
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.isEmpty() || page.size() < pageSize) {
+            return headers;
+        }
+        String next = cursorOf.apply(page.get(page.size() - 1)).encode();
+        headers.add(NEXT_CURSOR_HEADER, next);
+        headers.add(HttpHeaders.LINK, "<" + uriBuilder.replaceQueryParam(AFTER_PARAMETER, next).toUriString() + ">; rel=\"next\"");
+        return headers;
+    }
+}
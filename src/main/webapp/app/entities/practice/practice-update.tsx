@@ -123,6 +123,9 @@ export const PracticeUpdate = () => {
                 data-cy="start"
                 type="datetime-local"
                 placeholder="YYYY-MM-DD HH:mm"
+                validate={{
+                  required: { value: true, message: 'This field is required.' },
+                }}
               />
               <ValidatedField label="End" id="practice-end" name="end" data-cy="end" type="datetime-local" placeholder="YYYY-MM-DD HH:mm" />
               <ValidatedField label="Result" id="practice-result" name="result" data-cy="result" type="select">
@@ -6,10 +6,11 @@ export interface IPractice {
   id?: number;
   problemName?: string;
   problemLink?: string;
-  start?: string | null;
+  start?: string;
   end?: string | null;
   result?: PracticeResult | null;
   practiceSession?: IPracticeSession;
+  problemId?: number | null;
 }
 
 export const defaultValue: Readonly<IPractice> = {};
@@ -0,0 +1,39 @@
+package com.honstain.practicetracker.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.spi.R2dbcType;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MappingPlansTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    private final MappingPlans<String> plans = new MappingPlans<>((metadata, prefix) -> prefix + compilations.incrementAndGet());
+
+    @Test
+    void compilesOncePerLayoutAcrossInterleavedResults() {
+        // two results of the same query, read at the same time on two connections
+        StubRow.Metadata first = PracticeRowMapperTest.practiceMetadata("e");
+        StubRow.Metadata second = PracticeRowMapperTest.practiceMetadata("e");
+
+        for (int row = 0; row < 10; row++) {
+            assertThat(plans.get(first, "e")).isEqualTo("e1");
+            assertThat(plans.get(second, "e")).isEqualTo("e1");
+        }
+
+        assertThat(compilations).hasValue(1);
+    }
+
+    @Test
+    void compilesPerPrefixAndLayout() {
+        StubRow.Metadata metadata = PracticeRowMapperTest.practiceMetadata("e");
+        StubRow.Metadata reordered = new StubRow.Metadata().column("e_start", R2dbcType.TIMESTAMP).column("e_id", R2dbcType.BIGINT);
+
+        assertThat(plans.get(metadata, "e")).isEqualTo("e1");
+        assertThat(plans.get(metadata, "practices")).isEqualTo("practices2");
+        assertThat(plans.get(reordered, "e")).isEqualTo("e3");
+        assertThat(plans.get(metadata, "e")).isEqualTo("e1");
+    }
+}
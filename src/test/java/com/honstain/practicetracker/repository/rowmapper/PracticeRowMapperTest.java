@@ -0,0 +1,119 @@
+package com.honstain.practicetracker.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.honstain.practicetracker.config.DatabaseConfiguration;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import io.r2dbc.spi.R2dbcType;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+class PracticeRowMapperTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 9, 4, 18, 48, 7);
+    private static final LocalDateTime END = START.plusMinutes(25);
+
+    private PracticeRowMapper practiceRowMapper;
+    private PracticeSessionRowMapper practiceSessionRowMapper;
+
+    static ColumnConverter columnConverter() {
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(
+            PostgresDialect.INSTANCE,
+            List.of(DatabaseConfiguration.ZonedDateTimeReadConverter.INSTANCE, DatabaseConfiguration.ZonedDateTimeWriteConverter.INSTANCE)
+        );
+        return new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+    }
+
+    static StubRow.Metadata practiceMetadata(String prefix) {
+        // the driver returns the aliases in lower case
+        return new StubRow.Metadata()
+            .column(prefix.toLowerCase() + "_id", R2dbcType.BIGINT)
+            .column(prefix.toLowerCase() + "_problem_name", R2dbcType.VARCHAR)
+            .column(prefix.toLowerCase() + "_problem_link", R2dbcType.VARCHAR)
+            .column(prefix.toLowerCase() + "_start", R2dbcType.TIMESTAMP)
+            .column(prefix.toLowerCase() + "_jhi_end", R2dbcType.TIMESTAMP)
+            .column(prefix.toLowerCase() + "_result", R2dbcType.VARCHAR)
+            .column(prefix.toLowerCase() + "_practice_session_id", R2dbcType.BIGINT);
+    }
+
+    static StubRow practiceRow(StubRow.Metadata metadata, long id) {
+        return new StubRow(metadata, id, "Two Sum", "https://leetcode.com/problems/two-sum/", START, END, "PASS", 7L);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ColumnConverter converter = columnConverter();
+        practiceRowMapper = new PracticeRowMapper(converter);
+        practiceSessionRowMapper = new PracticeSessionRowMapper(converter);
+    }
+
+    @Test
+    void mapsAndConvertsEveryColumn() {
+        Practice practice = practiceRowMapper.apply(practiceRow(practiceMetadata("e"), 1L), "e");
+
+        assertThat(practice.getId()).isEqualTo(1L);
+        assertThat(practice.getProblemName()).isEqualTo("Two Sum");
+        assertThat(practice.getProblemLink()).isEqualTo("https://leetcode.com/problems/two-sum/");
+        assertThat(practice.getStart()).isEqualTo(ZonedDateTime.of(START, ZoneOffset.UTC));
+        assertThat(practice.getEnd()).isEqualTo(ZonedDateTime.of(END, ZoneOffset.UTC));
+        assertThat(practice.getResult()).isEqualTo(PracticeResult.PASS);
+        assertThat(practice.getPracticeSessionId()).isEqualTo(7L);
+    }
+
+    @Test
+    void mapsNullColumns() {
+        StubRow row = new StubRow(practiceMetadata("e"), 1L, "Two Sum", "link", null, null, null, null);
+
+        Practice practice = practiceRowMapper.apply(row, "e");
+
+        assertThat(practice.getStart()).isNull();
+        assertThat(practice.getEnd()).isNull();
+        assertThat(practice.getResult()).isNull();
+        assertThat(practice.getPracticeSessionId()).isNull();
+    }
+
+    @Test
+    void resolvesColumnsPerResultAndPrefix() {
+        StubRow.Metadata joined = new StubRow.Metadata()
+            .column("e_id", R2dbcType.BIGINT)
+            .column("e_start", R2dbcType.TIMESTAMP)
+            .column("e_jhi_end", R2dbcType.TIMESTAMP)
+            .column("practices_id", R2dbcType.BIGINT)
+            .column("practices_problem_name", R2dbcType.VARCHAR)
+            .column("practices_problem_link", R2dbcType.VARCHAR)
+            .column("practices_start", R2dbcType.TIMESTAMP)
+            .column("practices_jhi_end", R2dbcType.TIMESTAMP)
+            .column("practices_result", R2dbcType.VARCHAR)
+            .column("practices_practice_session_id", R2dbcType.BIGINT);
+        StubRow row = new StubRow(joined, 7L, START, END, 1L, "Two Sum", "link", START, null, "FAIL", 7L);
+
+        // the same mapper reads other results, with the columns at other indexes
+        practiceRowMapper.apply(practiceRow(practiceMetadata("e"), 1L), "e");
+        PracticeSession practiceSession = practiceSessionRowMapper.apply(row, "e");
+        Practice practice = practiceRowMapper.apply(row, "practices");
+
+        assertThat(practiceSession.getId()).isEqualTo(7L);
+        assertThat(practiceSession.getEnd()).isEqualTo(ZonedDateTime.of(END, ZoneOffset.UTC));
+        assertThat(practice.getId()).isEqualTo(1L);
+        assertThat(practice.getResult()).isEqualTo(PracticeResult.FAIL);
+        assertThat(practiceRowMapper.apply(practiceRow(practiceMetadata("practiceSession"), 2L), "practiceSession").getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void rejectsUnknownColumn() {
+        StubRow row = new StubRow(new StubRow.Metadata().column("e_id", R2dbcType.BIGINT), 1L);
+
+        assertThatThrownBy(() -> practiceRowMapper.apply(row, "e")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
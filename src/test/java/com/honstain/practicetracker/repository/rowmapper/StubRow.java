@@ -0,0 +1,107 @@
+package com.honstain.practicetracker.repository.rowmapper;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * In memory {@link Row}, which behaves like the driver: a value is only returned as the type it was decoded to, any other
+ * requested type is rejected.
+ */
+class StubRow implements Row {
+
+    private final Metadata metadata;
+    private final Object[] values;
+
+    StubRow(Metadata metadata, Object... values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        Object value = values[index];
+        if (value == null || type == Object.class || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        throw new IllegalArgumentException("Cannot decode value of type " + value.getClass().getName() + " as " + type.getName());
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(metadata.indexOf(name), type);
+    }
+
+    /**
+     * The columns of a result, shared by all of its rows.
+     */
+    static class Metadata implements RowMetadata {
+
+        private final List<Column> columns = new ArrayList<>();
+
+        Metadata column(String name, R2dbcType type) {
+            columns.add(new Column(name, type));
+            return this;
+        }
+
+        int indexOf(String name) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).getName().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            throw new NoSuchElementException("Unknown column " + name);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return columns.get(indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return columns;
+        }
+    }
+
+    private static class Column implements ColumnMetadata {
+
+        private final String name;
+        private final R2dbcType type;
+
+        Column(String name, R2dbcType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return type.getJavaType();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.honstain.practicetracker.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.management.SecurityMetersService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthenticationRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private AuthenticationRateLimiter authenticationRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginRateLimit().setLoginCapacity(3);
+        applicationProperties.getLoginRateLimit().setLoginRefillPeriod(Duration.ofSeconds(10));
+        applicationProperties.getLoginRateLimit().setAddressCapacity(5);
+        applicationProperties.getLoginRateLimit().setAddressRefillPeriod(Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        authenticationRateLimiter =
+            new AuthenticationRateLimiter(applicationProperties, new SecurityMetersService(meterRegistry), nanoTime::get);
+    }
+
+    @Test
+    void burstOfALoginIsLimitedToItsCapacity() {
+        // the first wrong password takes the first attempt
+        authenticationRateLimiter.loginFailed("user");
+        for (int attempt = 1; attempt < 3; attempt++) {
+            assertThat(authenticationRateLimiter.tryAcquire("user", null)).isZero();
+        }
+
+        assertThat(authenticationRateLimiter.tryAcquire("USER", null)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(authenticationRateLimiter.tryAcquire("other", null)).isZero();
+        assertThat(meterRegistry.get("security.authentication.rate-limited").tag("key", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void attemptIsRegainedAfterTheRefillPeriod() {
+        authenticationRateLimiter.loginFailed("user");
+        for (int attempt = 1; attempt < 3; attempt++) {
+            authenticationRateLimiter.tryAcquire("user", null);
+        }
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isEqualTo(Duration.ofSeconds(6));
+
+        nanoTime.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isZero();
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isPositive();
+    }
+
+    @Test
+    void steadyAttemptsAtTheRefillRateAreNeverLimited() {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            assertThat(authenticationRateLimiter.tryAcquire("user", "10.0.0.1")).isZero();
+            nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        }
+    }
+
+    @Test
+    void burstOfAnAddressIsLimitedAcrossLogins() {
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertThat(authenticationRateLimiter.tryAcquire("user" + attempt, "10.0.0.1")).isZero();
+        }
+
+        assertThat(authenticationRateLimiter.tryAcquire("user", "10.0.0.1")).isEqualTo(Duration.ofSeconds(1));
+        assertThat(authenticationRateLimiter.tryAcquire("user", "10.0.0.2")).isZero();
+        assertThat(meterRegistry.get("security.authentication.rate-limited").tag("key", "address").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loginWithoutFailedAttemptIsNeverLimited() {
+        // made up logins get no bucket, so they can neither be limited nor evict the bucket of a login under attack
+        for (int attempt = 0; attempt < 10; attempt++) {
+            assertThat(authenticationRateLimiter.tryAcquire("user", null)).isZero();
+        }
+
+        authenticationRateLimiter.loginFailed("user");
+        authenticationRateLimiter.loginFailed("user");
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isZero();
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isZero();
+        assertThat(authenticationRateLimiter.tryAcquire("user", null)).isPositive();
+    }
+}
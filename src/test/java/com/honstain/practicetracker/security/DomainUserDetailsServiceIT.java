@@ -7,6 +7,7 @@ import com.honstain.practicetracker.IntegrationTest;
 import com.honstain.practicetracker.config.Constants;
 import com.honstain.practicetracker.domain.User;
 import com.honstain.practicetracker.repository.UserRepository;
+import com.honstain.practicetracker.service.UserService;
 import java.util.Locale;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 /**
  * Integrations tests for {@link DomainUserDetailsService}.
@@ -36,10 +38,15 @@ class DomainUserDetailsServiceIT {
     @Qualifier("userDetailsService")
     private ReactiveUserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UserService userService;
+
     @BeforeEach
     public void init() {
         userRepository.deleteAllUserAuthorities().block();
         userRepository.deleteAll().block();
+        // the users are written directly to the repository, which does not evict the cached user details
+        ((DomainUserDetailsService) domainUserDetailsService).evictAll().block();
 
         User userOne = new User();
         userOne.setLogin(USER_ONE_LOGIN);
@@ -115,4 +122,38 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.findByUsername(USER_THREE_LOGIN).block());
     }
+
+    @Test
+    void assertThatUserDetailsAreCached() {
+        UserDetails userDetails = domainUserDetailsService.findByUsername(USER_ONE_LOGIN).block();
+
+        User userOne = userRepository.findOneByLogin(USER_ONE_LOGIN).block();
+        userOne.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        userRepository.save(userOne).block();
+
+        assertThat(domainUserDetailsService.findByUsername(USER_ONE_LOGIN).block()).isSameAs(userDetails);
+    }
+
+    @Test
+    void assertThatSaveUserEvictsCachedUserDetails() {
+        UserDetails userDetails = domainUserDetailsService.findByUsername(USER_ONE_EMAIL).block();
+        assertThat(userDetails).isNotNull();
+
+        User userOne = userRepository.findOneWithAuthoritiesByLogin(USER_ONE_LOGIN).block();
+        String password = RandomStringUtils.randomAlphanumeric(60);
+        userOne.setPassword(password);
+        userService.saveUser(userOne).block();
+
+        assertThat(domainUserDetailsService.findByUsername(USER_ONE_EMAIL).block().getPassword()).isEqualTo(password);
+    }
+
+    @Test
+    void assertThatDeleteUserEvictsCachedUserDetails() {
+        assertThat(domainUserDetailsService.findByUsername(USER_TWO_LOGIN).block()).isNotNull();
+
+        userService.deleteUser(USER_TWO_LOGIN).block();
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.findByUsername(USER_TWO_LOGIN).block());
+    }
 }
@@ -0,0 +1,54 @@
+package com.honstain.practicetracker.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class AuthorityPoolTest {
+
+    private final AuthorityPool authorityPool = new AuthorityPool();
+
+    @Test
+    void testEqualClaimsShareTheAuthorities() {
+        String claim = AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER;
+
+        List<GrantedAuthority> authorities = authorityPool.authorities(claim);
+
+        assertThat(authorities)
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(authorityPool.authorities(new String(claim))).isSameAs(authorities);
+        assertThat(authorityPool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testBlankAuthoritiesAreSkipped() {
+        assertThat(authorityPool.authorities(AuthoritiesConstants.USER + ", ,")).containsExactly(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+        );
+        assertThat(authorityPool.authorities("")).isEmpty();
+    }
+
+    @Test
+    void testAuthoritiesAreImmutable() {
+        List<GrantedAuthority> authorities = authorityPool.authorities(AuthoritiesConstants.USER);
+
+        assertThatThrownBy(() -> authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testPoolIsBounded() {
+        for (int i = 0; i < AuthorityPool.MAX_SIZE + 10; i++) {
+            authorityPool.authorities("ROLE_" + i);
+        }
+
+        assertThat(authorityPool.size()).isEqualTo(AuthorityPool.MAX_SIZE);
+        assertThat(authorityPool.authorities("ROLE_OVERFLOW")).containsExactly(new SimpleGrantedAuthority("ROLE_OVERFLOW"));
+        assertThat(authorityPool.size()).isEqualTo(AuthorityPool.MAX_SIZE);
+    }
+}
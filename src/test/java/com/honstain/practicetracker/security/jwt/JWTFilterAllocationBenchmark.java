@@ -0,0 +1,115 @@
+package com.honstain.practicetracker.security.jwt;
+
+import com.honstain.practicetracker.management.SecurityMetersService;
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Allocation benchmark of the JWT filter path, it measures the bytes allocated per authenticated request:
+ * <ul>
+ * <li>by building the authentication from the claims, with the authorities split from the claim as before the pool,
+ * then shared by the {@link AuthorityPool};</li>
+ * <li>by {@link TokenProvider#verifyToken(String)}, which the filter calls once per token;</li>
+ * <li>by {@link JWTFilter#filter}, with the token already verified.</li>
+ * </ul>
+ * The authentication still allocates its {@link User} principal, which sorts a copy of the authorities.
+ * <p>
+ * It is not part of the test suite, run it with a warmed up JVM on HotSpot: {@code JWTFilterAllocationBenchmark.main()}.
+ */
+public class JWTFilterAllocationBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+    private static final int ITERATIONS = 200_000;
+    private static final int WARMUP_ITERATIONS = 100_000;
+
+    public static void main(String[] args) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        JWTFilter jwtFilter = new JWTFilter(tokenProvider);
+
+        String jwt = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken(
+                "user",
+                "",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            ),
+            false
+        );
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+        String claim = claims.get("auth").toString();
+        AuthorityPool authorityPool = new AuthorityPool();
+        ServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/practices").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt)
+        );
+
+        Function<String, Object> splitAuthentication = token -> authentication(claims, split(claim), token);
+        Function<String, Object> pooledAuthentication = token -> authentication(claims, authorityPool.authorities(claim), token);
+        Function<String, Object> verifyToken = tokenProvider::verifyToken;
+        Function<String, Object> cachedFilter = token -> jwtFilter.filter(exchange, filtered -> Mono.empty()).block();
+
+        run("split", splitAuthentication, jwt, WARMUP_ITERATIONS);
+        run("pooled", pooledAuthentication, jwt, WARMUP_ITERATIONS);
+        run("verify", verifyToken, jwt, WARMUP_ITERATIONS / 10);
+        run("filter", cachedFilter, jwt, WARMUP_ITERATIONS);
+        System.out.printf("split authorities:  %,8.0f bytes/request%n", run("split", splitAuthentication, jwt, ITERATIONS));
+        System.out.printf("pooled authorities: %,8.0f bytes/request%n", run("pooled", pooledAuthentication, jwt, ITERATIONS));
+        System.out.printf("verifyToken:        %,8.0f bytes/request%n", run("verify", verifyToken, jwt, ITERATIONS / 10));
+        System.out.printf("filter, cached:     %,8.0f bytes/request%n", run("filter", cachedFilter, jwt, ITERATIONS));
+    }
+
+    private static double run(String name, Function<String, Object> path, String jwt, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long checksum = 0;
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Object result = path.apply(jwt);
+            checksum += result != null ? 1 : 0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - start;
+        if (checksum == 42) {
+            // keep the JIT from eliminating the path
+            System.out.println(name);
+        }
+        return (double) allocated / iterations;
+    }
+
+    // the authentication as TokenProvider builds it
+    private static Authentication authentication(Claims claims, Collection<? extends GrantedAuthority> authorities, String token) {
+        User principal = new User(claims.getSubject(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    // the authorities as they were split before the pool
+    private static List<GrantedAuthority> split(String claim) {
+        return Arrays
+            .stream(claim.split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+}
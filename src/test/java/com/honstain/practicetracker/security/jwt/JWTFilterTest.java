@@ -1,6 +1,9 @@
 package com.honstain.practicetracker.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.honstain.practicetracker.management.SecurityMetersService;
 import com.honstain.practicetracker.security.AuthoritiesConstants;
@@ -8,6 +11,8 @@ import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
@@ -22,6 +27,8 @@ import tech.jhipster.config.JHipsterProperties;
 
 class JWTFilterTest {
 
+    private SimpleMeterRegistry meterRegistry;
+
     private TokenProvider tokenProvider;
 
     private JWTFilter jwtFilter;
@@ -32,9 +39,10 @@ class JWTFilterTest {
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = spy(new TokenProvider(jHipsterProperties, securityMetersService));
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
@@ -152,4 +160,90 @@ class JWTFilterTest {
             )
             .block();
     }
+
+    @Test
+    void testJWTFilterVerifiesTokenOnce() {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        for (int i = 0; i < 3; i++) {
+            MockServerHttpRequest.BaseBuilder request = MockServerHttpRequest
+                .get("/api/test")
+                .header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+            jwtFilter
+                .filter(
+                    exchange,
+                    it ->
+                        Mono
+                            .deferContextual(Mono::just)
+                            .flatMap(c -> ReactiveSecurityContextHolder.getContext())
+                            .map(SecurityContext::getAuthentication)
+                            .doOnSuccess(auth -> assertThat(auth.getName()).isEqualTo("test-user"))
+                            .then()
+                )
+                .block();
+        }
+        verify(tokenProvider, times(1)).verifyToken(jwt);
+    }
+
+    @Test
+    void testJWTFilterCountsEveryInvalidToken() {
+        String jwt = "wrong_jwt";
+        for (int i = 0; i < 3; i++) {
+            MockServerHttpRequest.BaseBuilder request = MockServerHttpRequest
+                .get("/api/test")
+                .header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+            jwtFilter.filter(MockServerWebExchange.from(request), it -> Mono.empty()).block();
+        }
+        verify(tokenProvider, times(3)).verifyToken(jwt);
+        assertThat(meterRegistry.get("security.authentication.invalid-tokens").tag("cause", "malformed").counter().count())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void testJWTFilterRevokedToken() {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        String tokenId = tokenProvider.verifyToken(jwt).getTokenId();
+        Set<String> revoked = new HashSet<>();
+        JWTFilter revokingJwtFilter = new JWTFilter(tokenProvider, revoked::contains, JWTFilter.DEFAULT_CACHE_SIZE, meterRegistry);
+        MockServerHttpRequest.BaseBuilder request = MockServerHttpRequest
+            .get("/api/test")
+            .header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+
+        revokingJwtFilter
+            .filter(
+                MockServerWebExchange.from(request),
+                it ->
+                    Mono
+                        .deferContextual(Mono::just)
+                        .flatMap(c -> ReactiveSecurityContextHolder.getContext())
+                        .map(SecurityContext::getAuthentication)
+                        .doOnSuccess(auth -> assertThat(auth.getName()).isEqualTo("test-user"))
+                        .then()
+            )
+            .block();
+        // the token is verified and cached, it is still checked on every request
+        revoked.add(tokenId);
+        revokingJwtFilter
+            .filter(
+                MockServerWebExchange.from(request),
+                it ->
+                    Mono
+                        .deferContextual(Mono::just)
+                        .flatMap(c -> ReactiveSecurityContextHolder.getContext())
+                        .map(SecurityContext::getAuthentication)
+                        .doOnSuccess(auth -> assertThat(auth).isNull())
+                        .then()
+            )
+            .block();
+    }
 }
@@ -74,6 +74,15 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "expired").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testVerifyTokenExpiredCount() {
+        String expiredToken = createExpiredToken();
+
+        assertThat(tokenProvider.verifyToken(expiredToken)).isNull();
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "expired").counter().count()).isEqualTo(1);
+    }
+
     @Test
     void testTokenUnsupportedCount() {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "unsupported").counter().count()).isZero();
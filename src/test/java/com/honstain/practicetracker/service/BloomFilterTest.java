@@ -0,0 +1,50 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValuesAreNeverMissed() {
+        BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            bloomFilter.add(values[i]);
+        }
+
+        for (String value : values) {
+            assertThat(bloomFilter.mightContain(value)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsCloseToTheExpectedOne() {
+        BloomFilter bloomFilter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100000;
+        for (int i = 0; i < probes; i++) {
+            if (bloomFilter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+        assertThat(bloomFilter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter bloomFilter = new BloomFilter(100, 0.01);
+
+        assertThat(bloomFilter.mightContain("token")).isFalse();
+        assertThat(bloomFilter.expectedFalsePositiveProbability()).isZero();
+    }
+}
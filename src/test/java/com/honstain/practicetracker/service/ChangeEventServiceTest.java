@@ -0,0 +1,79 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.service.dto.ChangeEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+class ChangeEventServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ChangeEventService changeEventService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getEvents().setSubscriberBufferSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        changeEventService = new ChangeEventService(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void slowSubscriberKeepsTheNewestEvents() {
+        RecordingSubscriber slow = new RecordingSubscriber();
+        RecordingSubscriber fast = new RecordingSubscriber();
+        changeEventService.subscribe().subscribe(slow);
+        changeEventService.subscribe().subscribe(fast);
+        fast.request(Long.MAX_VALUE);
+
+        for (long id = 1; id <= 5; id++) {
+            changeEventService.practiceDeleted(new Practice().id(id)).block();
+        }
+        slow.request(Long.MAX_VALUE);
+
+        assertThat(fast.ids).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(slow.ids).containsExactly(4L, 5L);
+        assertThat(slow.sequences).containsExactly(4L, 5L);
+        assertThat(meterRegistry.counter("practice.events.dropped").count()).isEqualTo(3);
+    }
+
+    @Test
+    void eventsBeforeTheSubscriptionAreNotReplayed() {
+        changeEventService.practiceDeleted(new Practice().id(1L)).block();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        changeEventService.subscribe().subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        changeEventService.practiceDeleted(new Practice().id(2L)).block();
+
+        assertThat(subscriber.ids).containsExactly(2L);
+    }
+
+    /**
+     * Requests nothing until told to, as a client which does not read.
+     */
+    private static class RecordingSubscriber extends BaseSubscriber<ChangeEventDTO> {
+
+        private final List<Long> ids = new ArrayList<>();
+        private final List<Long> sequences = new ArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // no demand until request is called
+        }
+
+        @Override
+        protected void hookOnNext(ChangeEventDTO event) {
+            ids.add(event.getId());
+            sequences.add(event.getSequence());
+        }
+    }
+}
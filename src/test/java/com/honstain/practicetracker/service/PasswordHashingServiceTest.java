@@ -0,0 +1,88 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.honstain.practicetracker.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.Disposable;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPasswordHashing().setThreads(1);
+        applicationProperties.getPasswordHashing().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingService(new BlockingPasswordEncoder(), applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.destroy();
+    }
+
+    @Test
+    void hashesAreTimed() {
+        release.countDown();
+
+        assertThat(passwordHashingService.encode("password").block()).isEqualTo("{hash}password");
+        assertThat(passwordHashingService.matches("password", "{hash}password").block()).isTrue();
+
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hashIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        Disposable running = passwordHashingService.encode("running").subscribe();
+        assertThat(hashing.await(10, TimeUnit.SECONDS)).isTrue();
+        Disposable queued = passwordHashingService.encode("queued").subscribe();
+
+        assertThatExceptionOfType(PasswordHashingUnavailableException.class)
+            .isThrownBy(() -> passwordHashingService.encode("rejected").block());
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value()).isEqualTo(1);
+
+        running.dispose();
+        queued.dispose();
+    }
+
+    /**
+     * Prefixes the password, after blocking the first hash until released.
+     */
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
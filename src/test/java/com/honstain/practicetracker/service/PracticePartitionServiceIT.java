@@ -0,0 +1,161 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.Problem;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.repository.PracticeRepository;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Integration tests for {@link PracticePartitionService}.
+ */
+@IntegrationTest
+class PracticePartitionServiceIT {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'practice_'yyyy_MM");
+
+    @Autowired
+    private PracticePartitionService practicePartitionService;
+
+    @Autowired
+    private PracticeRepository practiceRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @AfterEach
+    public void cleanup() {
+        em.deleteAll(Practice.class).block();
+        em.deleteAll(Problem.class).block();
+        em.deleteAll(PracticeSession.class).block();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+    }
+
+    private String partitionOf(Long id) {
+        return databaseClient
+            .sql("SELECT tableoid::regclass::text AS partition FROM practice WHERE id = :id")
+            .bind("id", id)
+            .map((row, metadata) -> row.get("partition", String.class))
+            .one()
+            .block();
+    }
+
+    @Test
+    void partitionsAreCreatedAheadOnStartup() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        assertThat(practicePartitionService.createPartitions().block()).isZero();
+        for (int month = 0; month <= 3; month++) {
+            String partition = PARTITION_NAME.format(now.plusMonths(month));
+            assertThat(
+                databaseClient
+                    .sql("SELECT to_regclass(:name)::text AS partition")
+                    .bind("name", partition)
+                    .map((row, metadata) -> row.get("partition", String.class))
+                    .one()
+                    .block()
+            )
+                .isEqualTo(partition);
+        }
+    }
+
+    @Test
+    void practicesAreStoredInThePartitionOfTheirStart() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC).withNano(0);
+        ZonedDateTime longAgo = now.minusYears(20);
+        PracticeSession practiceSession = em.insert(new PracticeSession().start(now)).block();
+        Practice practice = new Practice()
+            .problemName("two-sum")
+            .problemLink("https://example.com/two-sum")
+            .start(now)
+            .practiceSession(practiceSession);
+        Long id = em.insert(practice).block().getId();
+        assertThat(partitionOf(id)).isEqualTo(PARTITION_NAME.format(now));
+
+        // Moving the practice before the created months moves it to the default partition
+        Practice stored = practiceRepository.findById(id).block();
+        Tuple2<Practice, Practice> moved = practiceRepository
+            .updateReturningPrevious(practiceRepository.findById(id).block().start(longAgo))
+            .block();
+        assertThat(moved).isNotNull();
+        assertThat(moved.getT1().getStart()).isEqualTo(stored.getStart());
+        assertThat(moved.getT2().getStart().toInstant()).isEqualTo(longAgo.toInstant());
+        assertThat(partitionOf(id)).isEqualTo("practice_default");
+
+        Practice deleted = practiceRepository.deleteByIdReturningPrevious(id).block();
+        assertThat(deleted.getStart().toInstant()).isEqualTo(longAgo.toInstant());
+        assertThat(practiceRepository.findById(id).block()).isNull();
+        assertThat(practiceRepository.deleteByIdReturningPrevious(id).block()).isNull();
+    }
+
+    @Test
+    void practicesOfTheDefaultPartitionAreMovedToTheirNewPartition() {
+        ZonedDateTime longAgo = ZonedDateTime.now(ZoneOffset.UTC).withNano(0).minusYears(30);
+        Long id = em
+            .insert(new Practice().problemName("two-sum").problemLink("https://example.com/two-sum").start(longAgo))
+            .block()
+            .getId();
+        assertThat(partitionOf(id)).isEqualTo("practice_default");
+
+        assertThat(practicePartitionService.createPartitions().block()).isEqualTo(1);
+        assertThat(partitionOf(id)).isEqualTo(PARTITION_NAME.format(longAgo));
+        assertThat(practiceRepository.findById(id).block().getStart().toInstant()).isEqualTo(longAgo.toInstant());
+        // the move is not a delete
+        assertThat(
+            databaseClient
+                .sql("SELECT count(*) AS tombstones FROM change_tombstone WHERE entity_name = 'practice' AND entity_id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> row.get("tombstones", Long.class))
+                .one()
+                .block()
+        )
+            .isZero();
+    }
+
+    @Test
+    void idsAreUniqueWithinAPartition() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC).withNano(0);
+        Long id = em.insert(new Practice().problemName("two-sum").problemLink("https://example.com/two-sum").start(now)).block().getId();
+
+        // Another practice of the same month, with the same id
+        Mono<Void> duplicate = databaseClient
+            .sql(
+                "INSERT INTO practice (id, problem_name, problem_link, start) " +
+                "VALUES (:id, 'two-sum', 'https://example.com/two-sum', :start)"
+            )
+            .bind("id", id)
+            .bind("start", now.plusSeconds(1).toLocalDateTime())
+            .then();
+        assertThatThrownBy(duplicate::block).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void startIsRequired() {
+        Mono<Void> withoutStart = databaseClient
+            .sql("INSERT INTO practice (problem_name, problem_link) VALUES ('two-sum', 'https://example.com/two-sum')")
+            .then();
+        assertThatThrownBy(withoutStart::block).isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.honstain.practicetracker.service.ProblemNameTrie.Match;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProblemNameTrieTest {
+
+    private ProblemNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ProblemNameTrie();
+        trie.add("Two Sum", 3);
+        trie.add("Two Sum II", 1);
+        trie.add("Three Sum", 2);
+    }
+
+    private List<String> search(String prefix, int limit) {
+        return trie.search(prefix, limit).stream().map(match -> match.name).collect(Collectors.toList());
+    }
+
+    @Test
+    void searchRanksPrefixMatchesByFrequency() {
+        assertThat(search("t", 10)).containsExactly("Two Sum", "Three Sum", "Two Sum II");
+        assertThat(search("two", 10)).containsExactly("Two Sum", "Two Sum II");
+        assertThat(search("t", 1)).containsExactly("Two Sum");
+        assertThat(search("sum", 10)).isEmpty();
+    }
+
+    @Test
+    void searchIgnoresCase() {
+        assertThat(search("TWO S", 10)).containsExactly("Two Sum", "Two Sum II");
+        List<Match> matches = trie.search("three", 10);
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).frequency).isEqualTo(2);
+    }
+
+    @Test
+    void searchFollowsFrequencyChanges() {
+        // cache the ranking of every node on the path
+        assertThat(search("t", 10)).containsExactly("Two Sum", "Three Sum", "Two Sum II");
+
+        trie.add("Two Sum II", 4);
+        assertThat(search("t", 10)).containsExactly("Two Sum II", "Two Sum", "Three Sum");
+
+        trie.add("Two Sum", -3);
+        assertThat(search("t", 10)).containsExactly("Two Sum II", "Three Sum");
+        assertThat(search("two", 10)).containsExactly("Two Sum II");
+    }
+
+    @Test
+    void removedNamesArePruned() {
+        trie.add("Two Sum II", -1);
+        trie.add("Two Sum", -3);
+        trie.add("Three Sum", -2);
+        assertThat(search("", 10)).isEmpty();
+        assertThat(search("t", 10)).isEmpty();
+    }
+
+    @Test
+    void searchIsBoundedByMaxResults() {
+        for (int i = 0; i < 2 * ProblemNameTrie.MAX_RESULTS; i++) {
+            trie.add("Problem " + i, i + 1);
+        }
+        List<String> matches = search("problem", ProblemNameTrie.MAX_RESULTS);
+        assertThat(matches).hasSize(ProblemNameTrie.MAX_RESULTS);
+        assertThat(matches.get(0)).isEqualTo("Problem " + (2 * ProblemNameTrie.MAX_RESULTS - 1));
+    }
+}
@@ -0,0 +1,78 @@
+package com.honstain.practicetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link TokenRevocationService}.
+ */
+@IntegrationTest
+class TokenRevocationServiceIT {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void refresh() {
+        tokenRevocationService.refresh().block();
+    }
+
+    @Test
+    void revokedTokenIsRevokedRightAway() {
+        String tokenId = UUID.randomUUID().toString();
+
+        tokenRevocationService.revoke(tokenId, Instant.now().plus(1, ChronoUnit.HOURS)).block();
+
+        assertThat(tokenRevocationService.isRevoked(tokenId)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void revocationOfAnotherInstanceIsReadByTheRefresh() {
+        String tokenId = UUID.randomUUID().toString();
+        // written without the service, like by another instance
+        revokedTokenRepository.save(tokenId, Instant.now().plus(1, ChronoUnit.HOURS)).block();
+
+        tokenRevocationService.refresh().block();
+
+        assertThat(tokenRevocationService.isRevoked(tokenId)).isTrue();
+        // the refresh is incremental, the scheduled refresh may also have read it already
+        assertThat(tokenRevocationService.refresh().block()).isZero();
+    }
+
+    @Test
+    void expiredRevocationIsNotRead() {
+        String tokenId = UUID.randomUUID().toString();
+        revokedTokenRepository.save(tokenId, Instant.now().minus(1, ChronoUnit.MINUTES)).block();
+
+        tokenRevocationService.refresh().block();
+
+        assertThat(tokenRevocationService.isRevoked(tokenId)).isFalse();
+    }
+
+    @Test
+    void checksAreCounted() {
+        double checks = meterRegistry.get("jwt.revocation.checks").counter().count();
+
+        tokenRevocationService.isRevoked(UUID.randomUUID().toString());
+
+        assertThat(meterRegistry.get("jwt.revocation.checks").counter().count()).isEqualTo(checks + 1);
+        assertThat(meterRegistry.get("jwt.revocation.false-positives").counter()).isNotNull();
+        assertThat(meterRegistry.get("jwt.revocation.expected-false-positive-rate").gauge().value()).isBetween(0.0, 1.0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.honstain.practicetracker.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.service.dto.ChangeEventDTO;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.FluxExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Integration tests for the {@link ChangeEventResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class ChangeEventResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/practices/events";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @AfterEach
+    public void cleanup() {
+        PracticeResourceIT.deleteEntities(em);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+    }
+
+    @Test
+    void streamsTheCommittedWrites() throws Exception {
+        FluxExchangeResult<ServerSentEvent<ChangeEventDTO>> result = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEventDTO>>() {});
+        // the comments (subscription and heartbeats) carry no data
+        Flux<ServerSentEvent<ChangeEventDTO>> events = result.getResponseBody().filter(event -> event.data() != null);
+
+        PracticeSession practiceSession = webTestClient
+            .post()
+            .uri("/api/practice-sessions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(PracticeSessionResourceIT.createEntity(em)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(PracticeSession.class)
+            .returnResult()
+            .getResponseBody();
+        Practice practice = PracticeResourceIT.createEntity(em);
+        practice.setPracticeSession(practiceSession);
+        Practice created = webTestClient
+            .post()
+            .uri("/api/practices")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(practice))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(Practice.class)
+            .returnResult()
+            .getResponseBody();
+        webTestClient.delete().uri("/api/practices/{id}", created.getId()).exchange().expectStatus().isNoContent();
+
+        List<ServerSentEvent<ChangeEventDTO>> received = events.take(3).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(received)
+            .extracting(ServerSentEvent::event)
+            .containsExactly("practiceSession.created", "practice.created", "practice.deleted");
+        assertThat(received.get(0).data().getId()).isEqualTo(practiceSession.getId());
+        assertThat(received.get(1).data().getId()).isEqualTo(created.getId());
+        assertThat(received.get(1).data().getEntity()).isNotNull();
+        assertThat(received.get(2).data().getId()).isEqualTo(created.getId());
+        assertThat(received.get(2).data().getEntity()).isNull();
+        long firstSequence = received.get(0).data().getSequence();
+        assertThat(received)
+            .extracting(ServerSentEvent::id)
+            .containsExactly(String.valueOf(firstSequence), String.valueOf(firstSequence + 1), String.valueOf(firstSequence + 2));
+    }
+}
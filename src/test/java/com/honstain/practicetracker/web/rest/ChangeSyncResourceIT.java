@@ -0,0 +1,170 @@
+package com.honstain.practicetracker.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.ChangeTrackingRepository;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.service.dto.ChangesDTO;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ChangeSyncResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class ChangeSyncResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/practices/changes";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ChangeTrackingRepository changeTrackingRepository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Practice practice;
+
+    @AfterEach
+    public void cleanup() {
+        PracticeResourceIT.deleteEntities(em);
+        databaseClient.sql("DELETE FROM change_tombstone").then().block();
+        databaseClient.sql("UPDATE change_tombstone_purge SET purged_through = 0").then().block();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+        practice = em.insert(PracticeResourceIT.createEntity(em)).block();
+    }
+
+    private ChangesDTO getChanges(String since) {
+        return webTestClient
+            .get()
+            .uri(since == null ? ENTITY_API_URL : ENTITY_API_URL + "?since=" + since)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ChangesDTO.class)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    @Test
+    void getChangesWithoutTokenReturnsEveryRow() {
+        ChangesDTO changes = getChanges(null);
+
+        assertThat(changes.getPractices()).extracting(Practice::getId).containsExactly(practice.getId());
+        assertThat(changes.getPracticeSessions()).extracting(PracticeSession::getId).containsExactly(practice.getPracticeSessionId());
+        assertThat(changes.getDeleted()).isEmpty();
+        assertThat(changes.isFullSync()).isTrue();
+        assertThat(changes.getNext()).isNotBlank();
+
+        ChangesDTO unchanged = getChanges(changes.getNext());
+        assertThat(unchanged.getPractices()).isEmpty();
+        assertThat(unchanged.getPracticeSessions()).isEmpty();
+        assertThat(unchanged.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void getChangesReturnsTheWritesAndDeletesSinceTheToken() {
+        Practice deleted = em.insert(PracticeResourceIT.createEntity(em)).block();
+        String since = getChanges(null).getNext();
+
+        databaseClient
+            .sql("UPDATE practice SET result = :result WHERE id = :id")
+            .bind("result", PracticeResult.FAIL.name())
+            .bind("id", practice.getId())
+            .then()
+            .block();
+        webTestClient.delete().uri("/api/practices/{id}", deleted.getId()).exchange().expectStatus().isNoContent();
+        webTestClient
+            .delete()
+            .uri("/api/practice-sessions/{id}", deleted.getPracticeSessionId())
+            .exchange()
+            .expectStatus()
+            .isNoContent();
+
+        ChangesDTO changes = getChanges(since);
+        assertThat(changes.getPractices()).extracting(Practice::getId).containsExactly(practice.getId());
+        assertThat(changes.getPractices().get(0).getResult()).isEqualTo(PracticeResult.FAIL);
+        assertThat(changes.getPracticeSessions()).isEmpty();
+        assertThat(changes.getDeleted())
+            .extracting(ChangesDTO.Tombstone::getEntityName, ChangesDTO.Tombstone::getId)
+            .containsExactly(
+                tuple("practice", deleted.getId()),
+                tuple("practiceSession", deleted.getPracticeSessionId())
+            );
+
+        ChangesDTO unchanged = getChanges(changes.getNext());
+        assertThat(unchanged.getPractices()).isEmpty();
+        assertThat(unchanged.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void getChangesDoesNotReturnAPracticeMovedToAnotherMonthAsDeleted() throws Exception {
+        String since = getChanges(null).getNext();
+
+        // The practice moves from the default partition to the partition of the current month
+        Practice partialUpdatedPractice = new Practice().id(practice.getId()).start(ZonedDateTime.now(ZoneOffset.UTC));
+        webTestClient
+            .patch()
+            .uri("/api/practices/{id}", practice.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedPractice))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        ChangesDTO changes = getChanges(since);
+        assertThat(changes.getPractices()).extracting(Practice::getId).containsExactly(practice.getId());
+        assertThat(changes.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void getChangesWithATokenOlderThanThePurgedTombstonesReturnsEveryRow() {
+        Practice deleted = em.insert(PracticeResourceIT.createEntity(em)).block();
+        String since = getChanges(null).getNext();
+        webTestClient.delete().uri("/api/practices/{id}", deleted.getId()).exchange().expectStatus().isNoContent();
+
+        assertThat(changeTrackingRepository.purgeTombstones(Instant.now().plusSeconds(60)).block()).isEqualTo(1L);
+
+        ChangesDTO changes = getChanges(since);
+        assertThat(changes.isFullSync()).isTrue();
+        assertThat(changes.getPractices()).extracting(Practice::getId).containsExactly(practice.getId());
+        assertThat(changes.getDeleted()).isEmpty();
+
+        ChangesDTO unchanged = getChanges(changes.getNext());
+        assertThat(unchanged.isFullSync()).isFalse();
+        assertThat(unchanged.getPractices()).isEmpty();
+    }
+
+    @Test
+    void getChangesWithAnInvalidTokenIsABadRequest() {
+        webTestClient.get().uri(ENTITY_API_URL + "?since=abc").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri(ENTITY_API_URL + "?since=-1").exchange().expectStatus().isBadRequest();
+    }
+}
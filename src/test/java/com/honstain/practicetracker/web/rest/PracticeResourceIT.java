@@ -8,25 +8,40 @@ import static org.hamcrest.Matchers.is;
 import com.honstain.practicetracker.IntegrationTest;
 import com.honstain.practicetracker.domain.Practice;
 import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.Problem;
 import com.honstain.practicetracker.domain.enumeration.PracticeResult;
 import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.repository.KeysetCursor;
 import com.honstain.practicetracker.repository.PracticeRepository;
+import com.honstain.practicetracker.repository.PracticeSqlHelper;
+import com.honstain.practicetracker.repository.ProblemRepository;
+import com.honstain.practicetracker.web.util.KeysetPaginationUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
 import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
 
 /**
  * Integration tests for the {@link PracticeResource} REST controller.
@@ -60,12 +75,24 @@ class PracticeResourceIT {
     @Autowired
     private PracticeRepository practiceRepository;
 
+    @Autowired
+    private ProblemRepository problemRepository;
+
     @Autowired
     private EntityManager em;
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
     private Practice practice;
 
     /**
@@ -111,6 +138,7 @@ class PracticeResourceIT {
     public static void deleteEntities(EntityManager em) {
         try {
             em.deleteAll(Practice.class).block();
+            em.deleteAll(Problem.class).block();
         } catch (Exception e) {
             // It can fail, if other entities are still referring this - it will be removed later.
         }
@@ -174,6 +202,86 @@ class PracticeResourceIT {
         assertThat(practiceList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void createPracticesInBatch() throws Exception {
+        int databaseSizeBeforeCreate = practiceRepository.findAll().collectList().block().size();
+        Practice second = createEntity(em).problemName(UPDATED_PROBLEM_NAME).result(UPDATED_RESULT);
+
+        // Create the Practices
+        List<Long> ids = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(practice, second)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBodyList(Long.class)
+            .hasSize(2)
+            .returnResult()
+            .getResponseBody();
+
+        // Validate the Practices in the database, the ids follow the order of the request
+        List<Practice> practiceList = practiceRepository.findAll().collectList().block();
+        assertThat(practiceList).hasSize(databaseSizeBeforeCreate + 2);
+        Practice testPractice = practiceRepository.findById(ids.get(0)).block();
+        assertThat(testPractice.getProblemName()).isEqualTo(DEFAULT_PROBLEM_NAME);
+        assertThat(testPractice.getProblemLink()).isEqualTo(DEFAULT_PROBLEM_LINK);
+        assertThat(testPractice.getStart()).isEqualTo(DEFAULT_START);
+        assertThat(testPractice.getEnd()).isEqualTo(DEFAULT_END);
+        assertThat(testPractice.getResult()).isEqualTo(DEFAULT_RESULT);
+        assertThat(testPractice.getPracticeSessionId()).isEqualTo(practice.getPracticeSessionId());
+        Practice testSecond = practiceRepository.findById(ids.get(1)).block();
+        assertThat(testSecond.getProblemName()).isEqualTo(UPDATED_PROBLEM_NAME);
+        assertThat(testSecond.getResult()).isEqualTo(UPDATED_RESULT);
+    }
+
+    @Test
+    void createPracticesInBatchAsNdjson() throws Exception {
+        int databaseSizeBeforeCreate = practiceRepository.findAll().collectList().block().size();
+        // Leave the optional fields empty, they must be inserted as NULL
+        Practice second = createEntity(em).end(null).result(null);
+        String body =
+            new String(TestUtil.convertObjectToJsonBytes(practice)) + "\n" + new String(TestUtil.convertObjectToJsonBytes(second)) + "\n";
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBodyList(Long.class)
+            .hasSize(2);
+
+        List<Practice> practiceList = practiceRepository.findAll().collectList().block();
+        assertThat(practiceList).hasSize(databaseSizeBeforeCreate + 2);
+        Practice testSecond = practiceList.get(practiceList.size() - 1);
+        assertThat(testSecond.getStart()).isEqualTo(DEFAULT_START);
+        assertThat(testSecond.getEnd()).isNull();
+        assertThat(testSecond.getResult()).isNull();
+    }
+
+    @Test
+    void createPracticesInBatchWithInvalidPracticeCreatesNone() throws Exception {
+        int databaseSizeBeforeCreate = practiceRepository.findAll().collectList().block().size();
+        Practice invalid = createEntity(em).problemLink(null);
+
+        // A single invalid practice rejects the whole batch
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(practice, invalid)))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        List<Practice> practiceList = practiceRepository.findAll().collectList().block();
+        assertThat(practiceList).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     void checkProblemNameIsRequired() throws Exception {
         int databaseSizeBeforeTest = practiceRepository.findAll().collectList().block().size();
@@ -195,6 +303,27 @@ class PracticeResourceIT {
         assertThat(practiceList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    void checkStartIsRequired() throws Exception {
+        int databaseSizeBeforeTest = practiceRepository.findAll().collectList().block().size();
+        // set the field null
+        practice.setStart(null);
+
+        // Create the Practice, which fails.
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(practice))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        List<Practice> practiceList = practiceRepository.findAll().collectList().block();
+        assertThat(practiceList).hasSize(databaseSizeBeforeTest);
+    }
+
     @Test
     void checkProblemLinkIsRequired() throws Exception {
         int databaseSizeBeforeTest = practiceRepository.findAll().collectList().block().size();
@@ -216,6 +345,31 @@ class PracticeResourceIT {
         assertThat(practiceList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    void practicesOfTheSameNormalizedLinkShareTheirProblem() {
+        practice.problemName("Two Sum").problemLink("https://www.Example.com/problems/two-sum/#description");
+        practiceRepository.save(practice).block();
+        Practice sameProblem = createEntity(em).problemName("two sum").problemLink(" http://example.com/problems/two-sum");
+        practiceRepository.save(sameProblem).block();
+        Practice otherProblem = createEntity(em).problemName("Three Sum").problemLink("https://example.com/problems/three-sum");
+        practiceRepository.save(otherProblem).block();
+
+        Long problemId = practiceRepository.findById(practice.getId()).block().getProblemId();
+        assertThat(problemId).isNotNull();
+        assertThat(practiceRepository.findById(sameProblem.getId()).block().getProblemId()).isEqualTo(problemId);
+        Long otherProblemId = practiceRepository.findById(otherProblem.getId()).block().getProblemId();
+        assertThat(otherProblemId).isNotEqualTo(problemId);
+
+        Problem problem = problemRepository.findOneByLink("example.com/problems/two-sum").block();
+        assertThat(problem.getId()).isEqualTo(problemId);
+        assertThat(problem.getName()).isEqualTo("Two Sum");
+        assertThat(problem.getNormalizedLink()).isEqualTo("example.com/problems/two-sum");
+
+        // Changing the link moves the practice to the problem of its new link
+        practiceRepository.update(sameProblem.problemLink("https://example.com/problems/three-sum/")).block();
+        assertThat(practiceRepository.findById(sameProblem.getId()).block().getProblemId()).isEqualTo(otherProblemId);
+    }
+
     @Test
     void getAllPracticesAsStream() {
         // Initialize the database
@@ -246,6 +400,64 @@ class PracticeResourceIT {
         assertThat(testPractice.getResult()).isEqualTo(DEFAULT_RESULT);
     }
 
+    @Test
+    void exportPracticesAsNdjson() {
+        // Initialize the database, with more practices than the fetch size of the tests
+        Practice first = practiceRepository.save(practice).block();
+        Practice second = practiceRepository.save(createEntity(em)).block();
+        Practice third = practiceRepository.save(createEntity(em)).block();
+
+        List<Practice> exported = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/export?format=ndjson")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectHeader()
+            .valueEquals("Content-Disposition", "attachment; filename=\"practices.ndjson\"")
+            .returnResult(Practice.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(exported).extracting(Practice::getId).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(exported.get(0).getProblemName()).isEqualTo(DEFAULT_PROBLEM_NAME);
+        assertThat(exported.get(0).getStart()).isEqualTo(DEFAULT_START);
+        assertThat(exported.get(0).getResult()).isEqualTo(DEFAULT_RESULT);
+    }
+
+    @Test
+    void exportPracticesAsCsv() {
+        // Initialize the database
+        practice.setProblemName("Two Sum, \"easy\"");
+        practiceRepository.save(practice).block();
+
+        String csv = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/export?format=csv&result=" + DEFAULT_RESULT)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(new MediaType("text", "csv"))
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("id,problem_name,problem_link,start,end,result,practice_session_id");
+        assertThat(lines[1]).startsWith(practice.getId() + ",\"Two Sum, \"\"easy\"\"\"," + DEFAULT_PROBLEM_LINK + ",");
+        assertThat(lines[1]).endsWith("," + DEFAULT_RESULT + "," + practice.getPracticeSessionId());
+    }
+
+    @Test
+    void exportPracticesWithInvalidFormat() {
+        webTestClient.get().uri(ENTITY_API_URL + "/export?format=xml").exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void getAllPractices() {
         // Initialize the database
@@ -276,6 +488,257 @@ class PracticeResourceIT {
             .value(hasItem(DEFAULT_RESULT.toString()));
     }
 
+    @Test
+    void getAllPracticesIsNotModifiedUntilAPracticeChanges() throws Exception {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+
+        // Update the practice
+        practice.setResult(UPDATED_RESULT);
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, practice.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(practice))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].result")
+            .value(hasItem(UPDATED_RESULT.toString()));
+    }
+
+    @Test
+    void getAllPracticesIsModifiedByAWriteOutsideTheApi() throws Exception {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+
+        // Update the practice as another instance would, without going through this one
+        databaseClient
+            .sql("UPDATE practice SET result = :result WHERE id = :id")
+            .bind("result", UPDATED_RESULT.name())
+            .bind("id", practice.getId())
+            .then()
+            .block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].result")
+            .value(hasItem(UPDATED_RESULT.toString()));
+    }
+
+    @Test
+    void getAllPracticesByResultIsEqualTo() {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        defaultPracticeShouldBeFound("result=" + DEFAULT_RESULT);
+        defaultPracticeShouldNotBeFound("result=" + UPDATED_RESULT);
+    }
+
+    @Test
+    void getAllPracticesByProblemNameStartsWith() {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        defaultPracticeShouldBeFound("problemName=" + DEFAULT_PROBLEM_NAME.substring(0, 3));
+        defaultPracticeShouldNotBeFound("problemName=" + UPDATED_PROBLEM_NAME.substring(0, 3));
+        // the wildcards of LIKE are matched literally
+        defaultPracticeShouldNotBeFound("problemName=A_A");
+    }
+
+    @Test
+    void getAllPracticesByStartRange() {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        defaultPracticeShouldBeFound("from=" + DEFAULT_START.toInstant() + "&to=" + DEFAULT_START.plusDays(1).toInstant());
+        defaultPracticeShouldNotBeFound("from=" + DEFAULT_START.plusDays(1).toInstant());
+        defaultPracticeShouldNotBeFound("to=" + DEFAULT_START.toInstant());
+    }
+
+    @Test
+    void getAllPracticesByPracticeSessionIdIsEqualTo() {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+
+        defaultPracticeShouldBeFound("practiceSessionId=" + practice.getPracticeSessionId());
+        defaultPracticeShouldNotBeFound("practiceSessionId=" + (practice.getPracticeSessionId() + 1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultPracticeShouldBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(practice.getId().intValue()))
+            .jsonPath("$.[*].problemName")
+            .value(hasItem(DEFAULT_PROBLEM_NAME));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultPracticeShouldNotBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .isArray()
+            .jsonPath("$")
+            .isEmpty();
+    }
+
+    @Test
+    void getPracticesWithKeysetPagination() {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+        Practice second = practiceRepository.save(createEntity(em)).block();
+        Practice third = practiceRepository.save(createEntity(em)).block();
+
+        // Get the first page
+        String cursor = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&sort=id,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(KeysetPaginationUtil.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.length()")
+            .value(is(2))
+            .jsonPath("$.[0].id")
+            .value(is(practice.getId().intValue()))
+            .jsonPath("$.[1].id")
+            .value(is(second.getId().intValue()))
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        // Get the last page, which seeks after the first one
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&after=" + cursor)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(KeysetPaginationUtil.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.length()")
+            .value(is(1))
+            .jsonPath("$.[0].id")
+            .value(is(third.getId().intValue()));
+    }
+
+    @Test
+    void keysetPageSeeksOnTheStartIdIndex() {
+        KeysetCursor after = new KeysetCursor("start", Sort.Direction.ASC, LocalDateTime.of(2022, 9, 4, 0, 0), 1L);
+        Table table = Table.aliased("practice", EntityManager.ENTITY_ALIAS);
+        String select = em.createSeekSelect(
+            Select.builder().select(PracticeSqlHelper.getColumns(table, EntityManager.ENTITY_ALIAS)).from(table),
+            Practice.class,
+            after,
+            after.getSort(),
+            20,
+            null
+        );
+
+        // the test tables are tiny, without these settings the planner would rather read them whole and sort them
+        Mono<String> plan = databaseClient
+            .sql("SET LOCAL enable_seqscan = off")
+            .then()
+            .then(databaseClient.sql("SET LOCAL enable_sort = off").then())
+            .thenMany(em.bindSeek(databaseClient.sql("EXPLAIN " + select), after).map((row, metadata) -> row.get(0, String.class)).all())
+            .collect(Collectors.joining("\n"));
+
+        // both columns of the cursor are an index condition, the rows before the cursor are not read at all
+        assertThat(TransactionalOperator.create(transactionManager).transactional(plan).block())
+            .containsPattern("Index Cond: \\(ROW\\((\\w+\\.)?start, (\\w+\\.)?id\\) > ROW\\(")
+            .doesNotContain(" OR ");
+    }
+
+    @Test
+    void getPracticesWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&after=invalid")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getPractice() {
         // Initialize the database
@@ -306,6 +769,82 @@ class PracticeResourceIT {
             .value(is(DEFAULT_RESULT.toString()));
     }
 
+    @Test
+    void getPracticeIsCachedUntilUpdated() throws Exception {
+        // Initialize the database
+        practiceRepository.save(practice).block();
+        getPracticeProblemName(practice.getId(), DEFAULT_PROBLEM_NAME);
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "practice").tag("result", "hit").functionCounter().count();
+
+        // A write which bypasses the REST API is not seen until the entry is evicted
+        practiceRepository.save(practiceRepository.findById(practice.getId()).block().problemName(UPDATED_PROBLEM_NAME)).block();
+        getPracticeProblemName(practice.getId(), DEFAULT_PROBLEM_NAME);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "practice").tag("result", "hit").functionCounter().count())
+            .isEqualTo(hitsBefore + 1);
+
+        // An update through the REST API evicts the entry
+        Practice updatedPractice = practiceRepository.findById(practice.getId()).block();
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedPractice.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedPractice))
+            .exchange()
+            .expectStatus()
+            .isOk();
+        getPracticeProblemName(practice.getId(), UPDATED_PROBLEM_NAME);
+    }
+
+    @Test
+    void getPracticeIsEvictedByAnUpdateOfItsSessionOnly() throws Exception {
+        // Initialize the database, with a second practice in another session
+        practiceRepository.save(practice).block();
+        Practice otherPractice = createEntity(em);
+        practiceRepository.save(otherPractice).block();
+        getPracticeProblemName(practice.getId(), DEFAULT_PROBLEM_NAME);
+        getPracticeProblemName(otherPractice.getId(), DEFAULT_PROBLEM_NAME);
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "practice").tag("result", "hit").functionCounter().count();
+
+        PracticeSession practiceSession = practice.getPracticeSession();
+        practiceSession.setEnd(ZonedDateTime.now(ZoneId.systemDefault()).withNano(0));
+        webTestClient
+            .put()
+            .uri("/api/practice-sessions/{id}", practiceSession.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(practiceSession))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        // The practice of the session is loaded again with the new session, the other one is still cached
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, practice.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.practiceSession.end")
+            .value(is(sameInstant(practiceSession.getEnd())));
+        getPracticeProblemName(otherPractice.getId(), DEFAULT_PROBLEM_NAME);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "practice").tag("result", "hit").functionCounter().count())
+            .isEqualTo(hitsBefore + 1);
+    }
+
+    private void getPracticeProblemName(Long id, String problemName) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, id)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.problemName")
+            .value(is(problemName));
+    }
+
     @Test
     void getNonExistingPractice() {
         // Get the practice
@@ -318,6 +857,31 @@ class PracticeResourceIT {
             .isNotFound();
     }
 
+    @Test
+    void getPracticesByIdShareTheRenderedSelect() {
+        // Initialize the database
+        Practice first = practiceRepository.save(practice).block();
+        Practice second = practiceRepository.save(createEntity(em)).block();
+        practiceRepository.findById(first.getId()).block();
+        double hitsBefore = selectCacheCount("hit");
+        double missesBefore = selectCacheCount("miss");
+
+        // The id is a bind marker, so another id has the same shape and is not rendered again
+        Practice found = practiceRepository.findById(second.getId()).block();
+
+        assertThat(found.getId()).isEqualTo(second.getId());
+        assertThat(selectCacheCount("hit")).isEqualTo(hitsBefore + 1);
+        assertThat(selectCacheCount("miss")).isEqualTo(missesBefore);
+    }
+
+    private double selectCacheCount(String result) {
+        return meterRegistry
+            .get(EntityManager.SELECT_CACHE_METER_NAME)
+            .tag(EntityManager.SELECT_CACHE_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
     @Test
     void putNewPractice() throws Exception {
         // Initialize the database
@@ -359,7 +923,7 @@ class PracticeResourceIT {
         int databaseSizeBeforeUpdate = practiceRepository.findAll().collectList().block().size();
         practice.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If no entity has the ID, the update returns no row
         webTestClient
             .put()
             .uri(ENTITY_API_URL_ID, practice.getId())
@@ -367,7 +931,7 @@ class PracticeResourceIT {
             .bodyValue(TestUtil.convertObjectToJsonBytes(practice))
             .exchange()
             .expectStatus()
-            .isBadRequest();
+            .isNotFound();
 
         // Validate the Practice in the database
         List<Practice> practiceList = practiceRepository.findAll().collectList().block();
@@ -490,7 +1054,7 @@ class PracticeResourceIT {
         int databaseSizeBeforeUpdate = practiceRepository.findAll().collectList().block().size();
         practice.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If no entity has the ID, the update returns no row
         webTestClient
             .patch()
             .uri(ENTITY_API_URL_ID, practice.getId())
@@ -498,7 +1062,7 @@ class PracticeResourceIT {
             .bodyValue(TestUtil.convertObjectToJsonBytes(practice))
             .exchange()
             .expectStatus()
-            .isBadRequest();
+            .isNotFound();
 
         // Validate the Practice in the database
         List<Practice> practiceList = practiceRepository.findAll().collectList().block();
@@ -0,0 +1,131 @@
+package com.honstain.practicetracker.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.service.PracticeScheduleService;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link PracticeScheduleResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class PracticeScheduleResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/practices/due";
+    private static final String PRACTICE_API_URL = "/api/practices";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PracticeScheduleService practiceScheduleService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private PracticeSession practiceSession;
+
+    @AfterEach
+    public void cleanup() {
+        PracticeResourceIT.deleteEntities(em);
+        practiceScheduleService.rebuild().block();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+        practiceSession = em.insert(PracticeSessionResourceIT.createEntity(em)).block();
+    }
+
+    private Practice newPractice(String problemName, PracticeResult result, Duration ago) {
+        ZonedDateTime end = ZonedDateTime.now(ZoneOffset.UTC).minus(ago).withNano(0);
+        Practice practice = new Practice()
+            .problemName(problemName)
+            .problemLink("https://example.com/" + problemName)
+            .start(end.minusMinutes(30))
+            .end(end)
+            .result(result);
+        practice.setPracticeSession(practiceSession);
+        return practice;
+    }
+
+    private void createPractice(String problemName, PracticeResult result, Duration ago) throws Exception {
+        webTestClient
+            .post()
+            .uri(PRACTICE_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(newPractice(problemName, result, ago)))
+            .exchange()
+            .expectStatus()
+            .isCreated();
+    }
+
+    private WebTestClient.BodyContentSpec getDue(int limit) {
+        return webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?limit=" + limit)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody();
+    }
+
+    @Test
+    void getDueProblemsFollowsPracticeHistory() throws Exception {
+        // due one day after a fail, two days after a first pass
+        createPractice("failed-long-ago", PracticeResult.FAIL, Duration.ofDays(10));
+        createPractice("passed-three-days-ago", PracticeResult.PASS, Duration.ofDays(3));
+        createPractice("passed-an-hour-ago", PracticeResult.PASS, Duration.ofHours(1));
+
+        getDue(10).jsonPath("$.[*].problemName").value(contains("failed-long-ago", "passed-three-days-ago"));
+        getDue(1).jsonPath("$.[*].problemName").value(contains("failed-long-ago"));
+
+        // a pass reschedules the failed problem
+        createPractice("failed-long-ago", PracticeResult.PASS, Duration.ofMinutes(1));
+        getDue(10)
+            .jsonPath("$.[*].problemName")
+            .value(contains("passed-three-days-ago"))
+            .jsonPath("$.[0].streak")
+            .isEqualTo(1)
+            .jsonPath("$.[0].lastResult")
+            .isEqualTo("PASS");
+
+        // an older practice inserted afterwards is replayed in order
+        createPractice("passed-an-hour-ago", PracticeResult.FAIL, Duration.ofDays(20));
+        getDue(10).jsonPath("$.[*].problemName").value(contains("passed-three-days-ago"));
+    }
+
+    @Test
+    void getDueProblemsAfterRebuild() {
+        // Practices inserted without the API are only scheduled by a rebuild
+        em.insert(newPractice("inserted", PracticeResult.FAIL, Duration.ofDays(2))).block();
+        getDue(10).jsonPath("$").isEmpty();
+
+        practiceScheduleService.rebuild().block();
+
+        getDue(10).jsonPath("$.[*].problemName").value(contains("inserted"));
+    }
+
+    @Test
+    void getDueProblemsWithInvalidLimit() {
+        webTestClient.get().uri(ENTITY_API_URL + "?limit=0").exchange().expectStatus().isBadRequest();
+    }
+}
@@ -2,13 +2,16 @@ package com.honstain.practicetracker.web.rest;
 
 import static com.honstain.practicetracker.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
 import com.honstain.practicetracker.domain.PracticeSession;
 import com.honstain.practicetracker.repository.EntityManager;
 import com.honstain.practicetracker.repository.PracticeSessionRepository;
+import com.honstain.practicetracker.web.util.KeysetPaginationUtil;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -22,6 +25,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -89,7 +93,8 @@ class PracticeSessionResourceIT {
 
     @AfterEach
     public void cleanup() {
-        deleteEntities(em);
+        // some tests also create practices referring the practiceSessions
+        PracticeResourceIT.deleteEntities(em);
     }
 
     @BeforeEach
@@ -192,6 +197,123 @@ class PracticeSessionResourceIT {
             .value(hasItem(sameInstant(DEFAULT_END)));
     }
 
+    @Test
+    void getAllPracticeSessionsIsNotModifiedUntilASessionChanges() throws Exception {
+        // Initialize the database
+        practiceSessionRepository.save(practiceSession).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Create another session
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(createUpdatedEntity(em)))
+            .exchange()
+            .expectStatus()
+            .isCreated();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .value(HttpHeaders.ETAG, value -> assertThat(value).isNotEqualTo(eTag));
+    }
+
+    @Test
+    void getPracticeSessionsWithKeysetPagination() {
+        // Initialize the database, the updated session starts later
+        practiceSessionRepository.save(practiceSession).block();
+        PracticeSession later = practiceSessionRepository.save(createUpdatedEntity(em)).block();
+
+        String cursor = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=1&sort=start,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(KeysetPaginationUtil.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.[0].id")
+            .value(is(later.getId().intValue()))
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=1&after=" + cursor)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[0].id")
+            .value(is(practiceSession.getId().intValue()));
+    }
+
+    @Test
+    void getPracticeSessionsWithKeysetPaginationAfterTheLastStart() {
+        // Initialize the database, a session without start is sorted after the ones with a start
+        practiceSessionRepository.save(practiceSession).block();
+        PracticeSession withoutStart = practiceSessionRepository.save(new PracticeSession().end(DEFAULT_END)).block();
+
+        String cursor = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=1&sort=start,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[0].id")
+            .value(is(practiceSession.getId().intValue()))
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        // the seek on the start finds no row, the page is completed with the sessions without start
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&after=" + cursor)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .value(is(1))
+            .jsonPath("$.[0].id")
+            .value(is(withoutStart.getId().intValue()));
+    }
+
     @Test
     void getPracticeSession() {
         // Initialize the database
@@ -216,6 +338,72 @@ class PracticeSessionResourceIT {
             .value(is(sameInstant(DEFAULT_END)));
     }
 
+    @Test
+    void getPracticeSessionWithPractices() {
+        // Initialize the database
+        practiceSessionRepository.save(practiceSession).block();
+        Practice first = em.insert(PracticeResourceIT.createEntity(em).practiceSession(practiceSession)).block();
+        Practice second = em.insert(PracticeResourceIT.createEntity(em).practiceSession(practiceSession)).block();
+        // A practice of another session must not be included
+        em.insert(PracticeResourceIT.createEntity(em)).block();
+
+        // Get the practiceSession with its practices
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "?include=practices", practiceSession.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.id")
+            .value(is(practiceSession.getId().intValue()))
+            .jsonPath("$.practices.length()")
+            .value(is(2))
+            .jsonPath("$.practices.[*].id")
+            .value(containsInAnyOrder(first.getId().intValue(), second.getId().intValue()));
+    }
+
+    @Test
+    void getAllPracticeSessionsWithPractices() {
+        // Initialize the database, one session with a practice and one without any
+        practiceSessionRepository.save(practiceSession).block();
+        Practice practice = em.insert(PracticeResourceIT.createEntity(em).practiceSession(practiceSession)).block();
+        PracticeSession emptySession = practiceSessionRepository.save(createEntity(em)).block();
+
+        List<PracticeSession> practiceSessions = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?include=practices")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(PracticeSession.class)
+            .returnResult()
+            .getResponseBody();
+
+        PracticeSession withPractice = practiceSessions.stream().filter(s -> s.getId().equals(practiceSession.getId())).findFirst().get();
+        assertThat(withPractice.getPractices()).extracting(Practice::getId).containsExactly(practice.getId());
+        PracticeSession withoutPractice = practiceSessions.stream().filter(s -> s.getId().equals(emptySession.getId())).findFirst().get();
+        assertThat(withoutPractice.getPractices()).isEmpty();
+        // Every session is returned once, whatever its number of practices
+        assertThat(practiceSessions).extracting(PracticeSession::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getPracticeSessionWithInvalidInclude() {
+        // Initialize the database
+        practiceSessionRepository.save(practiceSession).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "?include=unknown", practiceSession.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getNonExistingPracticeSession() {
         // Get the practiceSession
@@ -261,7 +449,7 @@ class PracticeSessionResourceIT {
         int databaseSizeBeforeUpdate = practiceSessionRepository.findAll().collectList().block().size();
         practiceSession.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If no entity has the ID, the update returns no row
         webTestClient
             .put()
             .uri(ENTITY_API_URL_ID, practiceSession.getId())
@@ -269,7 +457,7 @@ class PracticeSessionResourceIT {
             .bodyValue(TestUtil.convertObjectToJsonBytes(practiceSession))
             .exchange()
             .expectStatus()
-            .isBadRequest();
+            .isNotFound();
 
         // Validate the PracticeSession in the database
         List<PracticeSession> practiceSessionList = practiceSessionRepository.findAll().collectList().block();
@@ -379,7 +567,7 @@ class PracticeSessionResourceIT {
         int databaseSizeBeforeUpdate = practiceSessionRepository.findAll().collectList().block().size();
         practiceSession.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If no entity has the ID, the update returns no row
         webTestClient
             .patch()
             .uri(ENTITY_API_URL_ID, practiceSession.getId())
@@ -387,7 +575,7 @@ class PracticeSessionResourceIT {
             .bodyValue(TestUtil.convertObjectToJsonBytes(practiceSession))
             .exchange()
             .expectStatus()
-            .isBadRequest();
+            .isNotFound();
 
         // Validate the PracticeSession in the database
         List<PracticeSession> practiceSessionList = practiceSessionRepository.findAll().collectList().block();
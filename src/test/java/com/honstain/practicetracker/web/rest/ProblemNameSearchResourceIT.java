@@ -0,0 +1,128 @@
+package com.honstain.practicetracker.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.service.ProblemNameSearchService;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ProblemNameSearchResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class ProblemNameSearchResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/practices/search";
+    private static final String PRACTICE_API_URL = "/api/practices";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ProblemNameSearchService problemNameSearchService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private PracticeSession practiceSession;
+
+    @AfterEach
+    public void cleanup() {
+        PracticeResourceIT.deleteEntities(em);
+        problemNameSearchService.rebuild().block();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+        practiceSession = em.insert(PracticeSessionResourceIT.createEntity(em)).block();
+    }
+
+    private List<Long> createPractices(String problemName, int count) throws Exception {
+        List<Practice> practices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Practice practice = new Practice()
+                .problemName(problemName)
+                .problemLink("https://example.com/" + i)
+                .start(ZonedDateTime.now(ZoneOffset.UTC));
+            practice.setPracticeSession(practiceSession);
+            practices.add(practice);
+        }
+        return webTestClient
+            .post()
+            .uri(PRACTICE_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(practices))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBodyList(Long.class)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    private WebTestClient.BodyContentSpec search(String q, int limit) {
+        return webTestClient
+            .get()
+            .uri(uriBuilder -> uriBuilder.path(ENTITY_API_URL).queryParam("q", q).queryParam("limit", limit).build())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody();
+    }
+
+    @Test
+    void searchProblemNames() throws Exception {
+        List<Long> twoSums = createPractices("Two Sum", 3);
+        createPractices("Two Sum II", 1);
+        createPractices("Three Sum", 2);
+
+        // the prefix matches, ranked by frequency
+        search("two", 10)
+            .jsonPath("$.[*].problemName")
+            .value(contains("Two Sum", "Two Sum II"))
+            .jsonPath("$.[0].frequency")
+            .isEqualTo(3);
+        search("TW", 1).jsonPath("$.[*].problemName").value(contains("Two Sum"));
+
+        // the substring matches, found by the trigram index
+        search("sum", 10).jsonPath("$.[*].problemName").value(contains("Two Sum", "Three Sum", "Two Sum II"));
+        search("hree", 10).jsonPath("$.[*].problemName").value(contains("Three Sum"));
+
+        // the prefix matches come first
+        search("three", 10).jsonPath("$.[*].problemName").value(contains("Three Sum"));
+
+        // a delete lowers the frequency
+        webTestClient.delete().uri(PRACTICE_API_URL + "/{id}", twoSums.get(0)).exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri(PRACTICE_API_URL + "/{id}", twoSums.get(1)).exchange().expectStatus().isNoContent();
+        search("t", 10)
+            .jsonPath("$.[*].problemName")
+            .value(contains("Three Sum", "Two Sum", "Two Sum II"))
+            .jsonPath("$.[1].frequency")
+            .isEqualTo(1);
+    }
+
+    @Test
+    void searchProblemNamesWithInvalidParameters() {
+        webTestClient.get().uri(ENTITY_API_URL + "?q=%20").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri(ENTITY_API_URL + "?q=two&limit=0").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri(ENTITY_API_URL + "?q=two&limit=1000").exchange().expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,168 @@
+package com.honstain.practicetracker.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ProblemStatsResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class ProblemStatsResourceIT {
+
+    private static final String PROBLEM_NAME = "two-sum";
+    private static final String PROBLEM_LINK = "https://example.com/two-sum";
+
+    private static final ZonedDateTime START = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_000_000L), ZoneOffset.UTC);
+
+    private static final String ENTITY_API_URL = "/api/stats/problems";
+    private static final String PRACTICE_API_URL = "/api/practices";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private PracticeSession practiceSession;
+
+    @AfterEach
+    public void cleanup() {
+        PracticeResourceIT.deleteEntities(em);
+        databaseClient.sql("DELETE FROM problem_stats").then().block();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+        practiceSession = em.insert(PracticeSessionResourceIT.createEntity(em)).block();
+    }
+
+    private Practice newPractice(PracticeResult result, long solveSeconds) {
+        Practice practice = new Practice()
+            .problemName(PROBLEM_NAME)
+            .problemLink(PROBLEM_LINK)
+            .start(START)
+            .end(START.plusSeconds(solveSeconds))
+            .result(result);
+        practice.setPracticeSession(practiceSession);
+        return practice;
+    }
+
+    private Practice createPractice(PracticeResult result, long solveSeconds) throws Exception {
+        return webTestClient
+            .post()
+            .uri(PRACTICE_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(newPractice(result, solveSeconds)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(Practice.class)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    private WebTestClient.BodyContentSpec getStats(String groupBy) {
+        return webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?groupBy=" + groupBy)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody();
+    }
+
+    @Test
+    void getProblemStatsFollowsPracticeWrites() throws Exception {
+        createPractice(PracticeResult.PASS, 60);
+        Practice failed = createPractice(PracticeResult.FAIL, 120);
+
+        getStats("problemName")
+            .jsonPath("$.[*].problem")
+            .value(hasItem(PROBLEM_NAME))
+            .jsonPath("$.[0].attempts")
+            .isEqualTo(2)
+            .jsonPath("$.[0].passRate")
+            .isEqualTo(0.5)
+            .jsonPath("$.[0].meanSolveSeconds")
+            .isEqualTo(90.0)
+            .jsonPath("$.[0].p90SolveSeconds")
+            .isEqualTo(128);
+        getStats("problemLink").jsonPath("$.[0].problem").isEqualTo(PROBLEM_LINK).jsonPath("$.[0].attempts").isEqualTo(2);
+
+        // Update the failed practice to a pass
+        failed.setResult(PracticeResult.PASS);
+        webTestClient
+            .put()
+            .uri(PRACTICE_API_URL + "/{id}", failed.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(failed))
+            .exchange()
+            .expectStatus()
+            .isOk();
+        getStats("problemName").jsonPath("$.[0].attempts").isEqualTo(2).jsonPath("$.[0].passRate").isEqualTo(1.0);
+
+        // Delete it
+        webTestClient.delete().uri(PRACTICE_API_URL + "/{id}", failed.getId()).exchange().expectStatus().isNoContent();
+        getStats("problemName")
+            .jsonPath("$.[0].attempts")
+            .isEqualTo(1)
+            .jsonPath("$.[0].meanSolveSeconds")
+            .isEqualTo(60.0)
+            .jsonPath("$.[0].p90SolveSeconds")
+            .isEqualTo(64);
+    }
+
+    @Test
+    void getProblemStatsWithInvalidGroupBy() {
+        webTestClient.get().uri(ENTITY_API_URL + "?groupBy=result").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void rebuildProblemStats() {
+        // Practices inserted without the API are only counted by a rebuild
+        em.insert(newPractice(PracticeResult.PASS, 30)).block();
+        em.insert(newPractice(PracticeResult.FAIL, 30)).block();
+        getStats("problemName").jsonPath("$").isEmpty();
+
+        webTestClient.post().uri(ENTITY_API_URL + "/rebuild").exchange().expectStatus().isOk().expectBody(Integer.class).isEqualTo(2);
+
+        getStats("problemName")
+            .jsonPath("$.[0].problem")
+            .isEqualTo(PROBLEM_NAME)
+            .jsonPath("$.[0].attempts")
+            .isEqualTo(2)
+            .jsonPath("$.[0].passRate")
+            .isEqualTo(0.5);
+    }
+
+    @Test
+    void rebuildProblemStatsIsForAdmins() {
+        webTestClient.post().uri(ENTITY_API_URL + "/rebuild").exchange().expectStatus().isForbidden();
+    }
+}
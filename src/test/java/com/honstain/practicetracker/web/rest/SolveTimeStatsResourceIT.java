@@ -0,0 +1,186 @@
+package com.honstain.practicetracker.web.rest;
+
+import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.domain.Practice;
+import com.honstain.practicetracker.domain.PracticeSession;
+import com.honstain.practicetracker.domain.enumeration.PracticeResult;
+import com.honstain.practicetracker.repository.EntityManager;
+import com.honstain.practicetracker.repository.ProblemRepository;
+import com.honstain.practicetracker.security.AuthoritiesConstants;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link SolveTimeStatsResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class SolveTimeStatsResourceIT {
+
+    private static final String PROBLEM_NAME = "two-sum";
+    private static final String PROBLEM_LINK = "https://example.com/two-sum";
+
+    // 1970-01-12 in UTC
+    private static final ZonedDateTime START = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_000_000L), ZoneOffset.UTC);
+    private static final String START_DAY = "1970-01-12";
+
+    private static final String ENTITY_API_URL = "/api/stats/solve-times";
+    private static final String PRACTICE_API_URL = "/api/practices";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private PracticeSession practiceSession;
+
+    @AfterEach
+    public void cleanup() {
+        databaseClient.sql("DELETE FROM problem_solve_times").then().block();
+        PracticeResourceIT.deleteEntities(em);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        cleanup();
+        practiceSession = em.insert(PracticeSessionResourceIT.createEntity(em)).block();
+    }
+
+    private Practice newPractice(ZonedDateTime start, long solveSeconds) {
+        Practice practice = new Practice()
+            .problemName(PROBLEM_NAME)
+            .problemLink(PROBLEM_LINK)
+            .start(start)
+            .end(start.plusSeconds(solveSeconds))
+            .result(PracticeResult.PASS);
+        practice.setPracticeSession(practiceSession);
+        return practice;
+    }
+
+    private Practice createPractice(ZonedDateTime start, long solveSeconds) throws Exception {
+        return webTestClient
+            .post()
+            .uri(PRACTICE_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(newPractice(start, solveSeconds)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(Practice.class)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    private WebTestClient.BodyContentSpec getSolveTimes(String query) {
+        return webTestClient
+            .get()
+            .uri(ENTITY_API_URL + query)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody();
+    }
+
+    private Long problemId() {
+        return problemRepository.findOneByLink(PROBLEM_LINK).block().getId();
+    }
+
+    @Test
+    void getSolveTimesMergesTheDaysOfTheWindow() throws Exception {
+        createPractice(START, 60);
+        createPractice(START, 120);
+        Practice slowest = createPractice(START, 200);
+        Practice fastest = createPractice(START.plus(Duration.ofDays(2)), 30);
+        Long problemId = problemId();
+
+        // The solve times are estimated by the upper bound of their bucket: 30 -> 32, 60 -> 64, 120 -> 128, 200 -> 215
+        getSolveTimes("?problemId=" + problemId)
+            .jsonPath("$.[0].problemId")
+            .isEqualTo(problemId.intValue())
+            .jsonPath("$.[0].count")
+            .isEqualTo(4)
+            .jsonPath("$.[0].minSeconds")
+            .isEqualTo(32)
+            .jsonPath("$.[0].meanSeconds")
+            .isEqualTo(102.5);
+        getSolveTimes("?problemId=" + problemId + "&from=" + START_DAY + "&to=" + START_DAY)
+            .jsonPath("$.[0].count")
+            .isEqualTo(3)
+            .jsonPath("$.[0].minSeconds")
+            .isEqualTo(64)
+            .jsonPath("$.[0].p50Seconds")
+            .isEqualTo(128)
+            .jsonPath("$.[0].p99Seconds")
+            .isEqualTo(215);
+        getSolveTimes("?from=1970-01-20").jsonPath("$").isEmpty();
+
+        // Delete the slowest practice, its day keeps the other practices
+        webTestClient.delete().uri(PRACTICE_API_URL + "/{id}", slowest.getId()).exchange().expectStatus().isNoContent();
+        getSolveTimes("?problemId=" + problemId + "&to=" + START_DAY)
+            .jsonPath("$.[0].count")
+            .isEqualTo(2)
+            .jsonPath("$.[0].maxSeconds")
+            .isEqualTo(128);
+
+        // Delete the only practice of the last day, the day is left without solve time
+        webTestClient.delete().uri(PRACTICE_API_URL + "/{id}", fastest.getId()).exchange().expectStatus().isNoContent();
+        getSolveTimes("?problemId=" + problemId + "&from=1970-01-13").jsonPath("$").isEmpty();
+    }
+
+    @Test
+    void getSolveTimesWithInvalidWindow() {
+        webTestClient.get().uri(ENTITY_API_URL + "?from=1970-01-13&to=1970-01-12").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getPracticeSessionSolveTimes() throws Exception {
+        createPractice(START, 60);
+        createPractice(START.plus(Duration.ofDays(2)), 90);
+
+        getSolveTimes("/sessions/" + practiceSession.getId())
+            .jsonPath("$.count")
+            .isEqualTo(2)
+            .jsonPath("$.maxSeconds")
+            .isEqualTo(90)
+            .jsonPath("$.meanSeconds")
+            .isEqualTo(75.0);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void rebuildSolveTimes() {
+        // Practices inserted without the API are only recorded by a rebuild
+        em.insert(newPractice(START, 30)).block();
+        em.insert(newPractice(START.plus(Duration.ofDays(1)), 30)).block();
+        getSolveTimes("").jsonPath("$").isEmpty();
+
+        webTestClient.post().uri(ENTITY_API_URL + "/rebuild").exchange().expectStatus().isOk().expectBody(Integer.class).isEqualTo(2);
+
+        getSolveTimes("?problemId=" + problemId()).jsonPath("$.[0].count").isEqualTo(2).jsonPath("$.[0].p50Seconds").isEqualTo(32);
+    }
+
+    @Test
+    void rebuildSolveTimesIsForAdmins() {
+        webTestClient.post().uri(ENTITY_API_URL + "/rebuild").exchange().expectStatus().isForbidden();
+    }
+}
@@ -1,6 +1,9 @@
 package com.honstain.practicetracker.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.honstain.practicetracker.IntegrationTest;
+import com.honstain.practicetracker.config.ApplicationProperties;
 import com.honstain.practicetracker.config.Constants;
 import com.honstain.practicetracker.domain.User;
 import com.honstain.practicetracker.repository.UserRepository;
@@ -8,6 +11,8 @@ import com.honstain.practicetracker.web.rest.vm.LoginVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -28,6 +33,9 @@ class UserJWTControllerIT {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Test
     void testAuthorize() throws Exception {
         User user = new User();
@@ -106,4 +114,97 @@ class UserJWTControllerIT {
             .jsonPath("$.id_token")
             .doesNotExist();
     }
+
+    @Test
+    void testAuthorizeIsRateLimitedPerLogin() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-rate-limited");
+        user.setEmail("user-jwt-controller-rate-limited@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-rate-limited");
+        login.setPassword("wrong password");
+        for (int attempt = 0; attempt < applicationProperties.getLoginRateLimit().getLoginCapacity(); attempt++) {
+            authenticate(login, null).expectStatus().isUnauthorized();
+        }
+        // the login is compared ignoring its case, and even the right password is rejected
+        login.setUsername("USER-JWT-CONTROLLER-RATE-LIMITED");
+        login.setPassword("test");
+        authenticate(login, null)
+            .expectStatus()
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+            .expectHeader()
+            .exists(HttpHeaders.RETRY_AFTER)
+            .expectHeader()
+            .doesNotExist("Authorization");
+    }
+
+    @Test
+    void testAuthorizeOfAnUnknownLoginIsNotRateLimitedPerLogin() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-unknown");
+        login.setPassword("wrong password");
+        for (int attempt = 0; attempt <= applicationProperties.getLoginRateLimit().getLoginCapacity(); attempt++) {
+            authenticate(login, null).expectStatus().isUnauthorized();
+        }
+    }
+
+    @Test
+    void testAuthorizeIsRateLimitedPerForwardedAddress() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setPassword("wrong password");
+        // the bucket regains an attempt every second meanwhile, so it takes a few more than its capacity
+        boolean limited = false;
+        for (int attempt = 0; attempt < 2 * applicationProperties.getLoginRateLimit().getAddressCapacity() && !limited; attempt++) {
+            login.setUsername("user-jwt-controller-forwarded-" + attempt);
+            limited = authenticate(login, "203.0.113.1").returnResult(Void.class).getStatus() == HttpStatus.TOO_MANY_REQUESTS;
+        }
+        assertThat(limited).isTrue();
+
+        // each client behind the proxy has its own bucket
+        authenticate(login, "203.0.113.2").expectStatus().isUnauthorized();
+    }
+
+    private WebTestClient.ResponseSpec authenticate(LoginVM login, String forwardedFor) throws Exception {
+        WebTestClient.RequestBodySpec request = webTestClient.post().uri("/api/authenticate").contentType(MediaType.APPLICATION_JSON);
+        if (forwardedFor != null) {
+            request = request.header("X-Forwarded-For", forwardedFor);
+        }
+        return request.bodyValue(TestUtil.convertObjectToJsonBytes(login)).exchange();
+    }
+
+    @Test
+    void testLogoutRevokesTheToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-logout");
+        user.setEmail("user-jwt-controller-logout@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-logout");
+        login.setPassword("test");
+        String authorization = webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(login))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getFirst(HttpHeaders.AUTHORIZATION);
+
+        webTestClient.get().uri("/api/account").header(HttpHeaders.AUTHORIZATION, authorization).exchange().expectStatus().isOk();
+        webTestClient.post().uri("/api/logout").header(HttpHeaders.AUTHORIZATION, authorization).exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/account").header(HttpHeaders.AUTHORIZATION, authorization).exchange().expectStatus().isUnauthorized();
+    }
 }
@@ -16,6 +16,7 @@ import com.honstain.practicetracker.web.rest.vm.ManagedUserVM;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -284,6 +285,90 @@ class UserResourceIT {
         assertThat(foundUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
     }
 
+    @Test
+    void getAllUsersPageByPage() {
+        // Initialize the database
+        userRepository.save(user).block();
+
+        List<AdminUserDTO> allUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,asc&size=1000")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(AdminUserDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        // Walking the pages one user at a time must return every user exactly once, in the same order
+        List<String> pagedLogins = new ArrayList<>();
+        for (int page = 0; page < allUsers.size(); page++) {
+            webTestClient
+                .get()
+                .uri("/api/admin/users?sort=login,asc&size=1&page=" + page)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(AdminUserDTO.class)
+                .hasSize(1)
+                .value(users -> pagedLogins.add(users.get(0).getLogin()));
+        }
+        assertThat(pagedLogins).containsExactlyElementsOf(allUsers.stream().map(AdminUserDTO::getLogin).collect(Collectors.toList()));
+        assertThat(pagedLogins).contains(DEFAULT_LOGIN);
+    }
+
+    @Test
+    void getAllUsersSortedByCodePoint() {
+        // Initialize the database, most collations would sort "alpha" before "Zeta"
+        user.setLastName("alpha");
+        userRepository.save(user).block();
+        User other = createEntity(em);
+        other.setLastName("Zeta");
+        userRepository.save(other).block();
+
+        List<AdminUserDTO> users = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=lastName,asc&size=1000")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(AdminUserDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(users.stream().map(AdminUserDTO::getLastName).filter(Objects::nonNull).collect(Collectors.toList()))
+            .containsSubsequence("Zeta", "alpha")
+            .isSorted();
+    }
+
+    @Test
+    void getAllUsersSortedByTheFirstOrderOnly() {
+        // Initialize the database, the users only differ by login
+        user.setLastName("same");
+        userRepository.save(user).block();
+        User other = createEntity(em);
+        other.setLastName("same");
+        userRepository.save(other).block();
+
+        List<AdminUserDTO> users = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=lastName,asc&sort=login,desc&size=1000")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(AdminUserDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        // the second order is ignored, the ties keep the order of their ids
+        assertThat(users.stream().filter(u -> "same".equals(u.getLastName())).map(AdminUserDTO::getId).collect(Collectors.toList()))
+            .containsExactly(user.getId(), other.getId());
+    }
+
     @Test
     void getUser() {
         // Initialize the database